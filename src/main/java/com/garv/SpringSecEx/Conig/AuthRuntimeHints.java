@@ -0,0 +1,67 @@
+package com.garv.SpringSecEx.Conig;
+
+import com.garv.SpringSecEx.Entity.Users;
+import com.garv.SpringSecEx.Repository.UserCredentials;
+import com.garv.SpringSecEx.dto.ApiResponse;
+import com.garv.SpringSecEx.dto.ImportEvent;
+import com.garv.SpringSecEx.dto.ImportUserRow;
+import com.garv.SpringSecEx.dto.TokenIntrospection;
+import com.garv.SpringSecEx.event.InvalidationEvent;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import java.util.List;
+
+/**
+ * Native-image hints Spring cannot infer (unused on the JVM and for -Paot jars):
+ * <ul>
+ *     <li>jjwt-api creates its implementation classes (builders, parsers, algorithm
+ *     registries) by name through reflection, and finds the Jackson serializer with
+ *     ServiceLoader. jjwt-impl and jjwt-jackson are runtime-only, hence the names.</li>
+ *     <li>Types the application serializes with its own ObjectMapper rather than through
+ *     a controller: error bodies, import events, invalidation messages, remote user cache.</li>
+ *     <li>The UserCredentials constructor, which Hibernate calls for the JPQL projection.</li>
+ * </ul>
+ */
+public class AuthRuntimeHints implements RuntimeHintsRegistrar {
+
+    static final List<String> JJWT_TYPES = List.of(
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+            "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+            "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardCurves",
+            "io.jsonwebtoken.impl.security.StandardKeyOperations",
+            "io.jsonwebtoken.impl.security.KeysBridge",
+            "io.jsonwebtoken.impl.security.DefaultDynamicJwkBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkParserBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkSetBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkSetParserBuilder",
+            "io.jsonwebtoken.impl.security.DefaultKeyOperationBuilder",
+            "io.jsonwebtoken.impl.security.DefaultKeyOperationPolicyBuilder",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+    );
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (String type : JJWT_TYPES) {
+            hints.reflection().registerTypeIfPresent(classLoader, type,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.io.*");
+
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                ApiResponse.class, ImportEvent.class, ImportUserRow.class, InvalidationEvent.class,
+                TokenIntrospection.class, Users.class);
+        hints.reflection().registerType(UserCredentials.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+    }
+}
@@ -0,0 +1,70 @@
+package com.garv.SpringSecEx.Conig;
+
+import com.garv.SpringSecEx.Utlity.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Single shared PasswordEncoder for registration and login.
+ * <p>
+ * New hashes use auth.password.algorithm and are stored with an {id} prefix. Legacy
+ * hashes without a prefix are matched as BCrypt, and any hash not in the current
+ * algorithm or cost is upgraded on the next successful login (see
+ * MyUserDetailsService#updatePassword). Hashing runs on a bounded pool.
+ */
+@Configuration
+public class PasswordConfig {
+
+    @Bean
+    public BoundedPasswordEncoder passwordEncoder(
+            @Value("${auth.password.algorithm:bcrypt}") String algorithm,
+            @Value("${auth.password.bcrypt.strength:12}") int bcryptStrength,
+            @Value("${auth.password.pbkdf2.iterations:310000}") int pbkdf2Iterations,
+            @Value("${auth.password.hashing.threads:0}") int threads,
+            @Value("${auth.password.hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${auth.password.hashing.timeout:5s}") Duration timeout,
+            MeterRegistry registry) {
+
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", bcrypt);
+        encoders.put("pbkdf2", new Pbkdf2PasswordEncoder("", 16, pbkdf2Iterations,
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256));
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(algorithm, encoders);
+        // Hashes stored before this encoder existed have no {id} prefix and are plain BCrypt
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(delegating, poolSize, queueCapacity, timeout, registry);
+    }
+
+    @Bean
+    public MeterBinder passwordHashingMetrics(BoundedPasswordEncoder passwordEncoder) {
+        return registry -> {
+            Gauge.builder("auth.password.hashing.queue.depth", passwordEncoder, BoundedPasswordEncoder::getQueueDepth)
+                    .description("Hash requests waiting for a hashing thread")
+                    .register(registry);
+            Gauge.builder("auth.password.hashing.active", passwordEncoder, encoder -> encoder.getExecutor().getActiveCount())
+                    .description("Hashing threads currently busy")
+                    .register(registry);
+            FunctionCounter.builder("auth.password.hashing.rejected", passwordEncoder, BoundedPasswordEncoder::getRejectedCount)
+                    .description("Hash requests rejected because the queue was full")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,98 @@
+package com.garv.SpringSecEx.Conig;
+
+import com.garv.SpringSecEx.Utlity.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sends read-only transactions to read replicas and everything else to the primary.
+ * <p>
+ * The application's DataSource is a LazyConnectionDataSourceProxy: it only fetches a
+ * connection at the first statement, once the transaction has marked it read-only, and
+ * then takes it from {@link ReplicaRoutingDataSource} instead of the primary. The auth
+ * lookups (UserRepository#findCredentialsByUsername) are read-only; registration,
+ * token-version reads and every other write run in read-write transactions and stay on
+ * the primary.
+ * <p>
+ * Replica pools use the spring.datasource.hikari settings of the primary. Any JDBC URL
+ * works, e.g. a second local PostgreSQL or an in-memory database for tests.
+ */
+@Configuration
+@ConditionalOnProperty(name = "auth.datasource.replicas.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            Environment environment,
+            @Value("${auth.datasource.replicas.urls}") List<String> urls,
+            @Value("${auth.datasource.replicas.username:${spring.datasource.username:}}") String username,
+            @Value("${auth.datasource.replicas.password:${spring.datasource.password:}}") String password,
+            @Value("${auth.datasource.replicas.health-timeout:2s}") Duration healthTimeout,
+            @Value("${auth.datasource.replicas.max-lag:1s}") Duration maxLag) {
+
+        List<ReplicaRoutingDataSource.Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(replica));
+            replica.setJdbcUrl(urls.get(i).trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setPoolName("replica-" + i);
+            replica.setReadOnly(true);
+            replica.setInitializationFailTimeout(-1); // a replica that is down must not stop startup
+            replicas.add(new ReplicaRoutingDataSource.Replica(replica.getPoolName(), replica));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, healthTimeout, maxLag);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+        return dataSource;
+    }
+
+    @Bean
+    public MeterBinder replicaMetrics(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return registry -> {
+            for (ReplicaRoutingDataSource.Replica replica : replicaRoutingDataSource.getReplicas()) {
+                Gauge.builder("auth.datasource.replica.healthy", replica, r -> r.isHealthy() ? 1 : 0)
+                        .description("1 while the replica passes its health check and takes reads")
+                        .tag("replica", replica.getName())
+                        .register(registry);
+                Gauge.builder("auth.datasource.replica.lag", replica, ReplicaRoutingDataSource.Replica::getLagSeconds)
+                        .description("Replication lag at the last health check")
+                        .baseUnit("seconds")
+                        .tag("replica", replica.getName())
+                        .register(registry);
+            }
+        };
+    }
+}
@@ -1,39 +1,76 @@
 package com.garv.SpringSecEx.Conig;
 
+import com.garv.SpringSecEx.Utlity.ErrorBodies;
 import com.garv.SpringSecEx.Utlity.JwtFilter;
+import com.garv.SpringSecEx.Utlity.LoginRateLimitFilter;
+import com.garv.SpringSecEx.Utlity.ServiceBusyFilter;
+import com.garv.SpringSecEx.Utlity.TrustedNetworks;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationManagers;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.util.List;
+
 @Configuration
 @EnableWebSecurity
+@EnableMethodSecurity
 public class SecurityConfig {
 
     private final UserDetailsService userDetailsService;
+    private final UserDetailsPasswordService userDetailsPasswordService;
+    private final PasswordEncoder passwordEncoder;
     private final JwtFilter jwtFilter;
+    private final LoginRateLimitFilter loginRateLimitFilter;
+    private final ServiceBusyFilter serviceBusyFilter;
+    private final ErrorBodies errorBodies;
+    private final TrustedNetworks actuatorNetworks;
 
-    public SecurityConfig(UserDetailsService userDetailsService, JwtFilter jwtFilter) {
+    public SecurityConfig(UserDetailsService userDetailsService,
+                          UserDetailsPasswordService userDetailsPasswordService,
+                          PasswordEncoder passwordEncoder,
+                          JwtFilter jwtFilter,
+                          LoginRateLimitFilter loginRateLimitFilter,
+                          ServiceBusyFilter serviceBusyFilter,
+                          ErrorBodies errorBodies,
+                          @Value("${auth.actuator.trusted-networks:127.0.0.1/32,::1/128}") List<String> actuatorNetworks) {
         this.userDetailsService = userDetailsService;
+        this.userDetailsPasswordService = userDetailsPasswordService;
+        this.passwordEncoder = passwordEncoder;
         this.jwtFilter = jwtFilter;   // <--- FIXED
+        this.loginRateLimitFilter = loginRateLimitFilter;
+        this.serviceBusyFilter = serviceBusyFilter;
+        this.errorBodies = errorBodies;
+        this.actuatorNetworks = new TrustedNetworks(actuatorNetworks);
     }
 
     @Bean
     public AuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
-        provider.setPasswordEncoder(new BCryptPasswordEncoder(12));
+        provider.setPasswordEncoder(passwordEncoder);
         provider.setUserDetailsService(userDetailsService);
+        provider.setUserDetailsPasswordService(userDetailsPasswordService); // rehash outdated hashes on login
         return provider;
     }
 
@@ -45,15 +82,31 @@ public class SecurityConfig {
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
 
+        // Metrics reveal traffic and user activity: monitoring networks or admins only
+        AuthorizationManager<RequestAuthorizationContext> fromTrustedNetwork = (authentication, context) ->
+                new AuthorizationDecision(actuatorNetworks.contains(context.getRequest().getRemoteAddr()));
+
         return http
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/auth/register", "/auth/login", "/auth/refresh").permitAll()
                         .requestMatchers("/register", "/login").permitAll() // Keep legacy endpoints for backward compatibility
+                        .requestMatchers("/actuator/health/**").permitAll() // probes
+                        .requestMatchers("/actuator/**").access(AuthorizationManagers.anyOf(
+                                fromTrustedNetwork, AuthorityAuthorizationManager.hasRole("ADMIN")))
+                        .requestMatchers("/.well-known/jwks.json").permitAll() // public signing keys
+                        .requestMatchers("/admin/**").hasRole("ADMIN") // finer checks via @PreAuthorize
                         .anyRequest().authenticated())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                // Answer missing or rejected tokens directly with a fixed 401 instead of an /error dispatch
+                .exceptionHandling(exceptions -> exceptions.authenticationEntryPoint((request, response, e) -> {
+                    response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+                    errorBodies.write(response, HttpStatus.UNAUTHORIZED, "Authentication required");
+                }))
                 .authenticationProvider(authenticationProvider())
                 .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)  // WORKS NOW
+                .addFilterBefore(loginRateLimitFilter, JwtFilter.class) // throttle logins before any hashing
+                .addFilterBefore(serviceBusyFilter, LoginRateLimitFilter.class) // 503, not 500, when shedding load
                 .build();
     }
 }
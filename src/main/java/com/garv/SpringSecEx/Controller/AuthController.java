@@ -1,6 +1,9 @@
 package com.garv.SpringSecEx.Controller;
 
+import com.garv.SpringSecEx.Services.TokenIntrospectionService;
 import com.garv.SpringSecEx.Services.UserService;
+import com.garv.SpringSecEx.Utlity.JwtFilter;
+import com.garv.SpringSecEx.Utlity.VerifiedToken;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import com.garv.SpringSecEx.dto.RefreshTokenRequest;
@@ -10,8 +13,19 @@ import com.garv.SpringSecEx.dto.AuthResponse;
 import com.garv.SpringSecEx.dto.LoginRequest;
 import com.garv.SpringSecEx.dto.ApiResponse;
 import com.garv.SpringSecEx.dto.RegisterRequest;
+import com.garv.SpringSecEx.dto.IntrospectRequest;
+import com.garv.SpringSecEx.dto.TokenIntrospection;
+import com.garv.SpringSecEx.dto.CurrentUserResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.web.bind.annotation.*;
 
+import java.security.Principal;
+import java.time.Duration;
+import java.util.List;
+
 @RestController
 @RequestMapping("/auth")
 public class AuthController {
@@ -19,6 +33,9 @@ public class AuthController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private TokenIntrospectionService tokenIntrospectionService;
+
     @PostMapping("/register")
     public ResponseEntity<ApiResponse<UserResponse>> register(@RequestBody RegisterRequest registerRequest) {
         UserResponse userResponse = userService.register(registerRequest);
@@ -59,8 +76,11 @@ public class AuthController {
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<ApiResponse<Object>> logout() {
-        userService.logout();
+    public ResponseEntity<ApiResponse<Object>> logout(
+            @RequestAttribute(name = JwtFilter.VERIFIED_TOKEN_ATTRIBUTE, required = false) VerifiedToken accessToken,
+            @RequestBody(required = false) RefreshTokenRequest refreshTokenRequest) {
+        // Without the session's refresh token, all of the user's refresh tokens are revoked
+        userService.logout(accessToken, refreshTokenRequest != null ? refreshTokenRequest.getRefreshToken() : null);
         
         ApiResponse<Object> response = ApiResponse.success(
                 null,
@@ -70,4 +90,66 @@ public class AuthController {
         
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * The caller as the security context sees it. Answered from the token alone, with no
+     * session or user entity, so it is also the load driver's authenticated request.
+     */
+    @GetMapping("/me")
+    public ResponseEntity<ApiResponse<CurrentUserResponse>> me(Authentication authentication) {
+        CurrentUserResponse currentUser = new CurrentUserResponse(
+                authentication.getName(),
+                authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).sorted().toList()
+        );
+
+        ApiResponse<CurrentUserResponse> response = ApiResponse.success(
+                currentUser,
+                "Current user",
+                HttpStatus.OK.value()
+        );
+
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/logout-all")
+    public ResponseEntity<ApiResponse<Object>> logoutAll(Principal principal) {
+        userService.logoutAll(principal.getName());
+
+        ApiResponse<Object> response = ApiResponse.success(
+                null,
+                "Logged out from all sessions",
+                HttpStatus.OK.value()
+        );
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Check a batch of tokens for a gateway. Requires the tokens:introspect permission
+     * (the GATEWAY role). Cache-Control allows caching the whole response for as long as
+     * its shortest-lived result; each result also carries its own cacheSeconds.
+     */
+    @PostMapping("/introspect")
+    @PreAuthorize("hasAuthority('tokens:introspect')")
+    public ResponseEntity<ApiResponse<List<TokenIntrospection>>> introspect(@RequestBody IntrospectRequest introspectRequest) {
+        List<String> tokens = introspectRequest.getTokens() != null ? introspectRequest.getTokens() : List.of();
+        if (tokens.size() > tokenIntrospectionService.getMaxBatch()) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(
+                    "At most " + tokenIntrospectionService.getMaxBatch() + " tokens per request",
+                    HttpStatus.BAD_REQUEST.value()));
+        }
+
+        List<TokenIntrospection> results = tokenIntrospectionService.introspect(tokens);
+        long maxAge = results.stream().mapToLong(TokenIntrospection::getCacheSeconds).min().orElse(0);
+
+        ApiResponse<List<TokenIntrospection>> response = ApiResponse.success(
+                results,
+                "Tokens introspected",
+                HttpStatus.OK.value()
+        );
+
+        return ResponseEntity.ok()
+                .cacheControl(maxAge > 0 ? CacheControl.maxAge(Duration.ofSeconds(maxAge)).cachePrivate() : CacheControl.noStore())
+                .body(response);
+    }
 }
@@ -0,0 +1,50 @@
+package com.garv.SpringSecEx.Controller;
+
+import com.garv.SpringSecEx.Utlity.JwtKeyRing;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Publishes the public signing keys so resource servers can verify access tokens
+ * locally. The document is plain RFC 7517 JSON (not wrapped in ApiResponse) and is
+ * cacheable; keep jwt.jwks.max-age below jwt.signing.rotation-interval so caches
+ * pick up the pre-published next key before it starts signing. Only plain request
+ * headers are used, so the servlet and reactive applications share this controller.
+ */
+@RestController
+public class JwksController {
+
+    @Autowired
+    private JwtKeyRing keyRing;
+
+    @Value("${jwt.jwks.max-age:5m}")
+    private Duration maxAge;
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks(
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        List<Map<String, Object>> keys = keyRing.publicJwks();
+        List<String> kids = keys.stream().map(key -> String.valueOf(key.get("kid"))).sorted().toList();
+        String etag = "\"" + Integer.toHexString(kids.hashCode()) + "\"";
+        CacheControl cacheControl = CacheControl.maxAge(maxAge).cachePublic();
+
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).eTag(etag).build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .eTag(etag)
+                .body(Map.of("keys", keys));
+    }
+}
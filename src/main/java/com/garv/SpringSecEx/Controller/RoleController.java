@@ -0,0 +1,42 @@
+package com.garv.SpringSecEx.Controller;
+
+import com.garv.SpringSecEx.Services.UserService;
+import com.garv.SpringSecEx.dto.ApiResponse;
+import com.garv.SpringSecEx.dto.RoleAssignmentRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Set;
+
+@RestController
+@RequestMapping("/admin/users")
+public class RoleController {
+
+    @Autowired
+    private UserService userService;
+
+    /**
+     * Replace the roles of a user. Outstanding tokens carry the old role mask, so they are
+     * revoked and the user has to log in (or refresh) again.
+     */
+    @PutMapping("/{username}/roles")
+    @PreAuthorize("hasAuthority('users:roles')")
+    public ResponseEntity<ApiResponse<Set<String>>> assignRoles(@PathVariable String username,
+                                                                @RequestBody RoleAssignmentRequest request) {
+        userService.assignRoles(username, request.getRoles());
+
+        ApiResponse<Set<String>> response = ApiResponse.success(
+                request.getRoles(),
+                "Roles updated",
+                HttpStatus.OK.value()
+        );
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,100 @@
+package com.garv.SpringSecEx.Controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.garv.SpringSecEx.Services.UserImportService;
+import com.garv.SpringSecEx.dto.ApiResponse;
+import com.garv.SpringSecEx.dto.BulkRegisterResponse;
+import com.garv.SpringSecEx.dto.ImportEvent;
+import com.garv.SpringSecEx.dto.ImportUserRow;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Bulk user creation. Disabled unless auth.import.enabled=true.
+ */
+@RestController
+@RequestMapping("/admin/users")
+@ConditionalOnProperty(name = "auth.import.enabled", havingValue = "true")
+@PreAuthorize("hasAuthority('users:import')")
+public class UserImportController {
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${auth.import.max-bulk-size:1000}")
+    private int maxBulkSize;
+
+    @PostMapping("/bulk")
+    public ResponseEntity<ApiResponse<BulkRegisterResponse>> bulkRegister(@RequestBody List<ImportUserRow> rows) {
+        if (rows.size() > maxBulkSize) {
+            ApiResponse<BulkRegisterResponse> response = ApiResponse.error(
+                    "At most " + maxBulkSize + " users per request, use /admin/users/import for more",
+                    HttpStatus.BAD_REQUEST.value());
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        BulkRegisterResponse result = userImportService.registerAll(rows);
+
+        ApiResponse<BulkRegisterResponse> response = ApiResponse.success(
+                result,
+                "Created " + result.getCreated() + " users",
+                HttpStatus.OK.value()
+        );
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Streaming import from text/csv or application/x-ndjson. The response is NDJSON:
+     * one line per rejected row, one per processed chunk and a final "done" line. It is
+     * written from the request thread, so long imports aren't cut off by the async timeout.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public void importUsers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        boolean csv = TEXT_CSV.isCompatibleWith(MediaType.parseMediaType(request.getContentType()));
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType("application/x-ndjson");
+        OutputStream output = response.getOutputStream();
+
+        try {
+            userImportService.importStream(request.getInputStream(), csv, event -> write(output, event));
+        } catch (IllegalArgumentException e) {
+            write(output, ImportEvent.error(1, null, e.getMessage()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause(); // client went away
+        }
+    }
+
+    private void write(OutputStream output, ImportEvent event) {
+        try {
+            output.write(objectMapper.writeValueAsBytes(event));
+            output.write('\n');
+            if (!ImportEvent.ERROR.equals(event.getType())) {
+                output.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.garv.SpringSecEx.Entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "roles", indexes = {
+        @Index(name = "uk_roles_name", columnList = "name", unique = true),
+        @Index(name = "uk_roles_mask_bit", columnList = "mask_bit", unique = true)
+})
+public class Role {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String name;
+
+    // Position of this role in Users.roleMask. Tokens carry the mask, so a bit is never reused
+    @Column(name = "mask_bit", nullable = false)
+    private int bit;
+
+    // Roles whose authorities this one inherits, e.g. ADMIN includes USER
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "role_includes", joinColumns = @JoinColumn(name = "role_id"))
+    @Column(name = "included_role", nullable = false, length = 64)
+    private Set<String> includes = new HashSet<>();
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "role_permissions", joinColumns = @JoinColumn(name = "role_id"))
+    @Column(name = "permission", nullable = false, length = 128)
+    private Set<String> permissions = new HashSet<>();
+}
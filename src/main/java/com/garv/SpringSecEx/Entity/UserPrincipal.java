@@ -4,27 +4,102 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.time.Instant;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.List;
+import java.util.function.Supplier;
 
 public class UserPrincipal implements UserDetails {
 
-    private final Users user;
+    private static final Collection<GrantedAuthority> DEFAULT_AUTHORITIES =
+            Collections.singleton(new SimpleGrantedAuthority("ROLE_USER"));
+
+    private final Users user;  // the entity, or a stub holding only the token claims
+    private final Collection<? extends GrantedAuthority> authorities;
+    private final Supplier<Users> userLoader; // loads the entity behind a stub, null otherwise
+    private volatile Users loadedUser;
 
     public UserPrincipal(Users user) {
+        this(user, DEFAULT_AUTHORITIES);
+    }
+
+    /**
+     * @param authorities Effective authorities, normally the shared set from RoleRegistry
+     */
+    public UserPrincipal(Users user, Collection<? extends GrantedAuthority> authorities) {
+        this(user, authorities, null);
+    }
+
+    private UserPrincipal(Users user, Collection<? extends GrantedAuthority> authorities, Supplier<Users> userLoader) {
         this.user = user;
+        this.authorities = authorities;
+        this.userLoader = userLoader;
+    }
+
+    /**
+     * Build a principal from verified access-token claims without touching the database.
+     * The password is not known in this case and is left null.
+     */
+    public static UserPrincipal fromClaims(String username, int tokenVersion, long roleMask,
+                                           Collection<? extends GrantedAuthority> authorities) {
+        return fromClaims(username, tokenVersion, roleMask, authorities, null);
+    }
+
+    /**
+     * Like {@link #fromClaims(String, int, long, Collection)}, but the {@link Users} entity
+     * is loaded through userLoader the first time getUser, getPassword or
+     * isAccountNonLocked needs it. Name, token version and authorities never load it.
+     */
+    public static UserPrincipal fromClaims(String username, int tokenVersion, long roleMask,
+                                           Collection<? extends GrantedAuthority> authorities,
+                                           Supplier<Users> userLoader) {
+        Users user = new Users();
+        user.setUsername(username);
+        user.setTokenVersion(tokenVersion);
+        user.setRoleMask(roleMask);
+        return new UserPrincipal(user, authorities, userLoader);
+    }
+
+    // Concurrent first calls may both load; the result is the same either way
+    private Users fullUser() {
+        if (userLoader == null) {
+            return user;
+        }
+        Users loaded = loadedUser;
+        if (loaded == null) {
+            loaded = userLoader.get();
+            loadedUser = loaded;
+        }
+        return loaded;
+    }
+
+    /**
+     * @return false while this principal still only holds token claims
+     */
+    public boolean isUserLoaded() {
+        return userLoader == null || loadedUser != null;
     }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        // If you add roles later, return roles here
-        return Collections.singleton( new SimpleGrantedAuthority("USER"));
+        return authorities;
+    }
+
+    public Users getUser() {
+        return fullUser();
+    }
+
+    public int getTokenVersion() {
+        return user.getTokenVersion();
+    }
+
+    public long getRoleMask() {
+        return user.getRoleMask();
     }
 
     @Override
     public String getPassword() {
-        return user.getPassword();  // return real password
+        return fullUser().getPassword();  // return real password
     }
 
     @Override
@@ -39,7 +114,8 @@ public class UserPrincipal implements UserDetails {
 
     @Override
     public boolean isAccountNonLocked() {
-        return true;
+        Instant lockedUntil = fullUser().getLockedUntil();
+        return lockedUntil == null || !lockedUntil.isAfter(Instant.now());
     }
 
     @Override
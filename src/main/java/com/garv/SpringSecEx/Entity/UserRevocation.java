@@ -0,0 +1,26 @@
+package com.garv.SpringSecEx.Entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "user_revocations", indexes = {
+        @Index(name = "idx_user_revocations_updated_at", columnList = "updatedAt")
+})
+public class UserRevocation {
+
+    @Id
+    private String username;
+
+    // Every token of this user issued before this instant is revoked
+    private Instant revokedBefore;
+
+    private Instant updatedAt;
+}
@@ -5,18 +5,40 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
+
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Table(name = "users", indexes = {
+        // Unique: backs the index lookup by username and the insert-on-conflict registration
+        @Index(name = "uk_users_username", columnList = "username", unique = true)
+})
 public class Users {
 
+    // Sequence rather than IDENTITY so Hibernate can batch inserts (bulk import); ids are
+    // reserved 50 at a time. V2__auth_schema.sql moves it past the ids of existing rows
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;   // <-- Only ID, no @Version here
 
+    // Stored normalized, see UsernameNormalizer
+    @Column(nullable = false)
     private String username;
 
     private String password;
 
+    // Bumped to invalidate every token issued to this user (stateless mode)
+    @Column(name = "token_version", columnDefinition = "integer not null default 0")
+    private int tokenVersion;
+
+    // Set by progressive lockout after repeated failed logins
+    private Instant lockedUntil;
+
+    // One bit per Role (Role.bit); bit 0 is USER. Resolved to authorities by RoleRegistry
+    @Column(name = "role_mask", columnDefinition = "bigint not null default 1")
+    private long roleMask = 1;
+
 }
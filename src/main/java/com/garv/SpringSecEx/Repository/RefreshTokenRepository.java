@@ -0,0 +1,33 @@
+package com.garv.SpringSecEx.Repository;
+
+import com.garv.SpringSecEx.Entity.RefreshToken;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+    RefreshToken findByTokenHash(String tokenHash);
+
+    List<RefreshToken> findByUsernameAndRevokedFalseAndExpiresAtAfterOrderByCreatedAtAsc(String username, Instant now);
+
+    // Conditional update so two concurrent refreshes with the same token can't both succeed
+    @Modifying
+    @Query("update RefreshToken t set t.revoked = true, t.usedAt = :now where t.id = :id and t.revoked = false")
+    int markUsed(@Param("id") Long id, @Param("now") Instant now);
+
+    @Modifying
+    @Query("update RefreshToken t set t.revoked = true where t.familyId = :familyId and t.revoked = false")
+    int revokeFamily(@Param("familyId") String familyId);
+
+    @Modifying
+    @Query("update RefreshToken t set t.revoked = true where t.username = :username and t.revoked = false")
+    int revokeAllForUser(@Param("username") String username);
+
+    @Query("select t.id from RefreshToken t where t.expiresAt < :now")
+    List<Long> findExpiredIds(@Param("now") Instant now, Pageable pageable);
+}
@@ -0,0 +1,44 @@
+package com.garv.SpringSecEx.Repository;
+
+import com.garv.SpringSecEx.Entity.Role;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+
+public interface RoleRepository extends JpaRepository<Role, Long> {
+    Role findByName(String name);
+
+    /**
+     * Create a role with its includes and permissions unless its name or bit is taken, in
+     * one transaction. Nodes starting together can all call this: the unique indexes decide,
+     * and the losers change nothing.
+     * @return true if this call created the role
+     */
+    @Transactional
+    default boolean insertIfAbsent(String name, int bit, Collection<String> includes, Collection<String> permissions) {
+        if (insertRoleIfAbsent(name, bit) == 0) {
+            return false;
+        }
+        includes.forEach(included -> insertInclude(name, included));
+        permissions.forEach(permission -> insertPermission(name, permission));
+        return true;
+    }
+
+    @Modifying
+    @Query(value = "insert into roles (name, mask_bit) values (:name, :bit) on conflict do nothing", nativeQuery = true)
+    int insertRoleIfAbsent(@Param("name") String name, @Param("bit") int bit);
+
+    @Modifying
+    @Query(value = "insert into role_includes (role_id, included_role) "
+            + "select id, :included from roles where name = :name", nativeQuery = true)
+    int insertInclude(@Param("name") String name, @Param("included") String included);
+
+    @Modifying
+    @Query(value = "insert into role_permissions (role_id, permission) "
+            + "select id, :permission from roles where name = :name", nativeQuery = true)
+    int insertPermission(@Param("name") String name, @Param("permission") String permission);
+}
@@ -0,0 +1,21 @@
+package com.garv.SpringSecEx.Repository;
+
+import com.garv.SpringSecEx.Entity.Users;
+
+import java.time.Instant;
+
+/**
+ * The columns of {@link Users} that UserPrincipal reads, selected by
+ * {@link UserRepository#findCredentialsByUsername} as a plain value instead of a managed
+ * entity: no persistence-context entry, no dirty-checking snapshot, no id.
+ */
+public record UserCredentials(String username, String password, int tokenVersion,
+                              Instant lockedUntil, long roleMask) {
+
+    /**
+     * @return a detached Users for UserPrincipal; saving it would insert a new row
+     */
+    public Users toUsers() {
+        return new Users(null, username, password, tokenVersion, lockedUntil, roleMask);
+    }
+}
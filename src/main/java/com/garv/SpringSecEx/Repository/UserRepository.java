@@ -2,7 +2,68 @@ package com.garv.SpringSecEx.Repository;
 
 import com.garv.SpringSecEx.Entity.Users;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 
 public interface UserRepository extends JpaRepository<Users, Long> {
+    // Managed entity, for updates; lookups that only authenticate use findCredentialsByUsername
     Users findByUsername(String username);
+
+    /**
+     * Read the columns needed to authenticate, in a read-only transaction and without
+     * building a managed entity. This is the per-request lookup behind MyUserDetailsService.
+     */
+    @Transactional(readOnly = true)
+    @Query("select new com.garv.SpringSecEx.Repository.UserCredentials("
+            + "u.username, u.password, u.tokenVersion, u.lockedUntil, u.roleMask) "
+            + "from Users u where u.username = :username")
+    UserCredentials findCredentialsByUsername(@Param("username") String username);
+
+    /**
+     * Insert a user unless the username is taken, in one statement: no check-then-insert
+     * race and one round trip. Any unique index counts as a conflict: uk_users_username,
+     * and uk_users_username_lower, which also covers legacy rows in another case.
+     * @return the new id, or null if the username already exists
+     */
+    @Transactional
+    @Query(value = "insert into users (id, username, password, token_version) "
+            + "values (nextval('users_seq'), :username, :password, 0) "
+            + "on conflict do nothing returning id", nativeQuery = true)
+    Long insertIfAbsent(@Param("username") String username, @Param("password") String password);
+
+    // One query per import chunk instead of a findByUsername per row
+    @Query("select u.username from Users u where u.username in :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    // Read-write on purpose: it decides whether revoked tokens still pass, so it must not
+    // be served by a replica that has not replayed the revocation yet
+    @Transactional
+    @Query("select u.tokenVersion from Users u where u.username = :username")
+    Integer findTokenVersionByUsername(@Param("username") String username);
+
+    @Modifying
+    @Query("update Users u set u.tokenVersion = u.tokenVersion + 1 where u.username = :username")
+    int incrementTokenVersion(@Param("username") String username);
+
+    @Modifying
+    @Query("update Users u set u.roleMask = :roleMask where u.username = :username")
+    int updateRoleMask(@Param("username") String username, @Param("roleMask") long roleMask);
+
+    // Bit operations have no JPQL form, hence native
+    @Query(value = "select exists (select 1 from users where role_mask & :roleBits <> 0)", nativeQuery = true)
+    boolean existsWithAnyRole(@Param("roleBits") long roleBits);
+
+    @Modifying
+    @Query(value = "update users set role_mask = role_mask | :roleBits where username = :username", nativeQuery = true)
+    int addRoles(@Param("username") String username, @Param("roleBits") long roleBits);
+
+    @Modifying
+    @Query("update Users u set u.lockedUntil = :lockedUntil where u.username = :username")
+    int lockUntil(@Param("username") String username, @Param("lockedUntil") Instant lockedUntil);
 }
@@ -0,0 +1,18 @@
+package com.garv.SpringSecEx.Repository;
+
+import com.garv.SpringSecEx.Entity.UserRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface UserRevocationRepository extends JpaRepository<UserRevocation, String> {
+    List<UserRevocation> findByUpdatedAtAfter(Instant since);
+
+    @Modifying
+    @Query("delete from UserRevocation r where r.revokedBefore < :cutoff")
+    int deleteRevokedBefore(@Param("cutoff") Instant cutoff);
+}
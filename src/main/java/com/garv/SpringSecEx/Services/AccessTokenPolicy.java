@@ -0,0 +1,128 @@
+package com.garv.SpringSecEx.Services;
+
+import com.garv.SpringSecEx.Entity.UserPrincipal;
+import com.garv.SpringSecEx.Utlity.InvalidTokenReason;
+import com.garv.SpringSecEx.Utlity.VerifiedToken;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Decides whether a verified token may authenticate, and as whom. JwtFilter and
+ * TokenIntrospectionService both ask here, so a gateway is never told a token is active
+ * that the filter would reject.
+ * <p>
+ * Tokens whose version is no longer current are rejected in either mode, so logging out
+ * everywhere, a password change or a role change ends them. In stateless mode the
+ * principal is built from the token's embedded claims; the role mask maps to a
+ * precomputed authority set and the entity is only loaded when first needed. Otherwise
+ * the user is loaded up front: that is the only check that it still exists and is
+ * enabled. The failed-login lockout (lockedUntil) is not checked: anyone can trigger it,
+ * so it only gates password login.
+ */
+@Service
+public class AccessTokenPolicy {
+
+    private final TokenRevocationService revocationService;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final RoleRegistry roleRegistry;
+    private final UserDetailsService userDetailsService;
+    private final boolean stateless;
+
+    public AccessTokenPolicy(TokenRevocationService revocationService,
+                             TokenVersionRegistry tokenVersionRegistry,
+                             RoleRegistry roleRegistry,
+                             UserDetailsService userDetailsService,
+                             @Value("${jwt.stateless.enabled:false}") boolean stateless) {
+        this.revocationService = revocationService;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.roleRegistry = roleRegistry;
+        this.userDetailsService = userDetailsService;
+        this.stateless = stateless;
+    }
+
+    /**
+     * @param principal the user to authenticate as, null if rejected
+     * @param reason why the token was rejected, null if accepted
+     */
+    public record Decision(UserDetails principal, InvalidTokenReason reason) {
+
+        static Decision accept(UserDetails principal) {
+            return new Decision(principal, null);
+        }
+
+        static Decision reject(InvalidTokenReason reason) {
+            return new Decision(null, reason);
+        }
+
+        public boolean isAccepted() {
+            return principal != null;
+        }
+    }
+
+    /**
+     * Both steps: {@link #checkClaims} then {@link #checkUser}.
+     */
+    public Decision check(VerifiedToken verified) {
+        InvalidTokenReason reason = checkClaims(verified);
+        return reason != null ? Decision.reject(reason) : checkUser(verified);
+    }
+
+    /**
+     * Checks that need nothing but the token: its type and the revocation list.
+     * @return why the token is rejected, or null
+     */
+    public InvalidTokenReason checkClaims(VerifiedToken verified) {
+        if (!verified.isAccessToken()) {
+            return InvalidTokenReason.WRONG_TYPE;
+        }
+        if (revocationService.isRevoked(verified)) {
+            return InvalidTokenReason.REVOKED;
+        }
+        return null;
+    }
+
+    /**
+     * Checks against the user: token version, and outside stateless mode the stored user.
+     * Expects {@link #checkClaims} to have passed.
+     */
+    public Decision checkUser(VerifiedToken verified) {
+        String subject = verified.subject();
+
+        // Tokens from before versions existed carry none; revokeAllBefore still covers them
+        if (verified.tokenVersion() != null
+                && !tokenVersionRegistry.isCurrent(subject, verified.tokenVersion())) {
+            return Decision.reject(InvalidTokenReason.STALE_VERSION);
+        }
+
+        if (stateless && verified.hasEmbeddedClaims()) {
+            return Decision.accept(UserPrincipal.fromClaims(
+                    subject,
+                    verified.tokenVersion(),
+                    verified.roleMask(),
+                    roleRegistry.authoritiesFor(verified.roleMask()),
+                    () -> ((UserPrincipal) userDetailsService.loadUserByUsername(subject)).getUser()
+            ));
+        }
+
+        UserDetails userDetails;
+        try {
+            userDetails = userDetailsService.loadUserByUsername(subject);
+        } catch (UsernameNotFoundException e) {
+            return Decision.reject(InvalidTokenReason.UNKNOWN_USER);
+        }
+        if (!subject.equals(userDetails.getUsername())) {
+            return Decision.reject(InvalidTokenReason.INVALID);
+        }
+        if (!userDetails.isEnabled()) {
+            return Decision.reject(InvalidTokenReason.ACCOUNT_DISABLED);
+        }
+        return Decision.accept(userDetails);
+    }
+
+    public boolean isStateless() {
+        return stateless;
+    }
+}
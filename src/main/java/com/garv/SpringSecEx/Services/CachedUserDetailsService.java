@@ -0,0 +1,107 @@
+package com.garv.SpringSecEx.Services;
+
+import com.garv.SpringSecEx.Entity.UserPrincipal;
+import com.garv.SpringSecEx.Entity.Users;
+import com.garv.SpringSecEx.Utlity.UsernameNormalizer;
+import com.garv.SpringSecEx.event.InvalidationGapEvent;
+import com.garv.SpringSecEx.event.UserChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Caching decorator around {@link MyUserDetailsService}, used by both the login path
+ * (DaoAuthenticationProvider) and JwtFilter. Lookups go to the in-process cache, then
+ * to the optional {@link RemoteUserCache} tier, then to the database.
+ * Entries are dropped on {@link UserChangedEvent}, including changes made on other nodes
+ * (see InvalidationBus).
+ */
+@Service
+@Primary
+public class CachedUserDetailsService implements UserDetailsService {
+
+    private final MyUserDetailsService delegate;
+    private final RemoteUserCache remoteCache;
+    private final Cache<String, UserPrincipal> localCache;
+
+    public CachedUserDetailsService(MyUserDetailsService delegate,
+                                    ObjectProvider<RemoteUserCache> remoteCache,
+                                    @Value("${auth.user-cache.enabled:true}") boolean enabled,
+                                    @Value("${auth.user-cache.ttl:5m}") Duration ttl,
+                                    @Value("${auth.user-cache.max-size:10000}") long maxSize) {
+        this.delegate = delegate;
+        this.remoteCache = remoteCache.getIfAvailable();
+        this.localCache = enabled ? Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build() : null;
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        if (localCache == null) {
+            return delegate.loadUserByUsername(username);
+        }
+        // Concurrent misses for the same user share a single load
+        return localCache.get(UsernameNormalizer.normalize(username), this::loadFromRemoteOrDatabase);
+    }
+
+    private UserPrincipal loadFromRemoteOrDatabase(String username) {
+        if (remoteCache != null) {
+            Users cached = remoteCache.get(username);
+            if (cached != null) {
+                return delegate.principalFor(cached);
+            }
+        }
+
+        UserPrincipal principal = (UserPrincipal) delegate.loadUserByUsername(username);
+        if (remoteCache != null) {
+            remoteCache.put(principal.getUser());
+        }
+        return principal;
+    }
+
+    /**
+     * Drop a user from every cache tier.
+     */
+    public void evict(String username) {
+        String normalized = UsernameNormalizer.normalize(username);
+        if (localCache != null) {
+            localCache.invalidate(normalized);
+        }
+        if (remoteCache != null) {
+            remoteCache.evict(normalized);
+        }
+    }
+
+    // After commit: a load racing the transaction would otherwise re-cache the old row,
+    // locally and in the shared tier
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        evict(event.username());
+    }
+
+    @EventListener
+    public void onInvalidationGap(InvalidationGapEvent event) {
+        if (localCache != null) {
+            localCache.invalidateAll();
+        }
+    }
+
+    public CacheStats stats() {
+        return localCache != null ? localCache.stats() : CacheStats.empty();
+    }
+}
@@ -0,0 +1,61 @@
+package com.garv.SpringSecEx.Services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.garv.SpringSecEx.Entity.Users;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Local stand-in for the remote user cache tier. It stores the same JSON as
+ * {@link RedisRemoteUserCache}, so tests and single-node setups exercise the
+ * two-tier path without a Redis server.
+ */
+@Service
+@ConditionalOnProperty(name = "auth.user-cache.remote", havingValue = "in-memory")
+public class InMemoryRemoteUserCache implements RemoteUserCache {
+
+    private final ObjectMapper objectMapper;
+    private final Cache<String, String> cache;
+
+    public InMemoryRemoteUserCache(ObjectMapper objectMapper,
+                                   @Value("${auth.user-cache.remote-ttl:30m}") Duration ttl) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public Users get(String username) {
+        String json = cache.getIfPresent(username);
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, Users.class);
+        } catch (JsonProcessingException e) {
+            cache.invalidate(username);
+            return null;
+        }
+    }
+
+    @Override
+    public void put(Users user) {
+        try {
+            cache.put(user.getUsername(), objectMapper.writeValueAsString(user));
+        } catch (JsonProcessingException e) {
+            // Not cached; the next lookup goes to the database
+        }
+    }
+
+    @Override
+    public void evict(String username) {
+        cache.invalidate(username);
+    }
+}
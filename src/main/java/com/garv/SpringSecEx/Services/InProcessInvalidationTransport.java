@@ -0,0 +1,37 @@
+package com.garv.SpringSecEx.Services;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Delivers messages synchronously to every bus started on this instance. The default
+ * for single-node setups; tests start several buses on one instance to stand in for
+ * several nodes.
+ */
+@Service
+@ConditionalOnProperty(name = "auth.invalidation.transport", havingValue = "in-process", matchIfMissing = true)
+public class InProcessInvalidationTransport implements InvalidationTransport {
+
+    private final List<Consumer<String>> receivers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void send(String message) {
+        for (Consumer<String> receiver : receivers) {
+            receiver.accept(message);
+        }
+    }
+
+    @Override
+    public void start(Consumer<String> receiver, Runnable onGap) {
+        receivers.add(receiver);
+    }
+
+    @Override
+    public void stop() {
+        receivers.clear();
+    }
+}
@@ -0,0 +1,159 @@
+package com.garv.SpringSecEx.Services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.garv.SpringSecEx.event.InvalidationEvent;
+import com.garv.SpringSecEx.event.InvalidationGapEvent;
+import com.garv.SpringSecEx.event.UserChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Propagates invalidations (token revocations, per-user cutoffs, user changes) to the
+ * in-memory caches of every node through an {@link InvalidationTransport}, instead of
+ * each node polling the database for them.
+ * <p>
+ * Outgoing: TokenRevocationService broadcasts revocations, and every local
+ * {@link UserChangedEvent} is forwarded. Incoming messages from other nodes are
+ * republished locally, as {@link InvalidationEvent} or as a remote UserChangedEvent,
+ * for the caches to apply. When the transport reports a gap an
+ * {@link InvalidationGapEvent} is published so caches drop what they hold.
+ */
+@Service
+public class InvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(InvalidationBus.class);
+
+    public enum DropReason {
+        SEND_FAILED,
+        DECODE_FAILED,
+        APPLY_FAILED,
+        GAP
+    }
+
+    private final InvalidationTransport transport;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Map<InvalidationEvent.Type, Counter> published = new EnumMap<>(InvalidationEvent.Type.class);
+    private final Map<InvalidationEvent.Type, Counter> received = new EnumMap<>(InvalidationEvent.Type.class);
+    private final Map<DropReason, Counter> dropped = new EnumMap<>(DropReason.class);
+    private final Timer lag;
+
+    public InvalidationBus(InvalidationTransport transport,
+                           ApplicationEventPublisher eventPublisher,
+                           ObjectMapper objectMapper,
+                           MeterRegistry registry) {
+        this.transport = transport;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        for (InvalidationEvent.Type type : InvalidationEvent.Type.values()) {
+            String tag = type.name().toLowerCase();
+            published.put(type, Counter.builder("auth.invalidation.published")
+                    .description("Invalidations broadcast by this node")
+                    .tag("type", tag)
+                    .register(registry));
+            received.put(type, Counter.builder("auth.invalidation.received")
+                    .description("Invalidations applied from other nodes")
+                    .tag("type", tag)
+                    .register(registry));
+        }
+        for (DropReason reason : DropReason.values()) {
+            dropped.put(reason, Counter.builder("auth.invalidation.dropped")
+                    .description("Invalidations lost or possibly missed")
+                    .tag("reason", reason.name().toLowerCase())
+                    .register(registry));
+        }
+        // Includes clock skew between nodes
+        this.lag = Timer.builder("auth.invalidation.lag")
+                .description("Time from broadcast on one node to being applied on another")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    @PostConstruct
+    void start() {
+        transport.start(this::receive, this::onGap);
+    }
+
+    @PreDestroy
+    void stop() {
+        transport.stop();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Send an invalidation to every other node. Failures are counted and logged, not
+     * thrown: the local change has already been made.
+     */
+    public void broadcast(InvalidationEvent.Type type, String key, Instant until) {
+        InvalidationEvent event = new InvalidationEvent(type, key, until, nodeId, System.currentTimeMillis());
+        try {
+            transport.send(objectMapper.writeValueAsString(event));
+            published.get(type).increment();
+        } catch (JsonProcessingException | RuntimeException e) {
+            dropped.get(DropReason.SEND_FAILED).increment();
+            log.warn("Could not broadcast {} for {}: {}", type, key, e.getMessage());
+        }
+    }
+
+    // Other nodes reload the user as soon as they hear about it, so only tell them after commit
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (!event.remote()) {
+            broadcast(InvalidationEvent.Type.USER_CHANGED, event.username(), null);
+        }
+    }
+
+    void receive(String message) {
+        InvalidationEvent event;
+        try {
+            event = objectMapper.readValue(message, InvalidationEvent.class);
+        } catch (JsonProcessingException e) {
+            dropped.get(DropReason.DECODE_FAILED).increment();
+            log.warn("Ignoring undecodable invalidation message: {}", e.getMessage());
+            return;
+        }
+        if (nodeId.equals(event.origin())) {
+            return; // our own broadcast, already applied locally
+        }
+
+        try {
+            if (event.type() == InvalidationEvent.Type.USER_CHANGED) {
+                eventPublisher.publishEvent(new UserChangedEvent(event.key(), true));
+            } else {
+                eventPublisher.publishEvent(event);
+            }
+            received.get(event.type()).increment();
+            lag.record(Math.max(0, System.currentTimeMillis() - event.sentAtMillis()), TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            dropped.get(DropReason.APPLY_FAILED).increment();
+            log.warn("Could not apply {} for {}: {}", event.type(), event.key(), e.getMessage());
+        }
+    }
+
+    private void onGap() {
+        dropped.get(DropReason.GAP).increment();
+        log.info("Invalidation transport reported a gap, dropping cached users and token versions");
+        eventPublisher.publishEvent(new InvalidationGapEvent("transport reconnected"));
+    }
+}
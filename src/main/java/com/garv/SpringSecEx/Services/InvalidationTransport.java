@@ -0,0 +1,25 @@
+package com.garv.SpringSecEx.Services;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries {@link InvalidationBus} messages between nodes. Delivery is at most once:
+ * a transport that may have lost messages (a dropped connection) reports it through
+ * the gap callback so the bus can fall back to clearing caches.
+ */
+public interface InvalidationTransport {
+
+    /**
+     * Hand a message to every node, including this one.
+     * @throws RuntimeException if the message could not be sent
+     */
+    void send(String message);
+
+    /**
+     * Start delivering messages from all nodes to the receiver.
+     * @param onGap called when messages may have been missed
+     */
+    void start(Consumer<String> receiver, Runnable onGap);
+
+    void stop();
+}
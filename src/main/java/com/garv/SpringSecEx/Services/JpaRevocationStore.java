@@ -0,0 +1,55 @@
+package com.garv.SpringSecEx.Services;
+
+import com.garv.SpringSecEx.Entity.RevokedToken;
+import com.garv.SpringSecEx.Entity.UserRevocation;
+import com.garv.SpringSecEx.Repository.RevokedTokenRepository;
+import com.garv.SpringSecEx.Repository.UserRevocationRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Service
+@ConditionalOnProperty(name = "jwt.revocation.store", havingValue = "jpa")
+public class JpaRevocationStore implements RevocationStore {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final UserRevocationRepository userRevocationRepository;
+
+    public JpaRevocationStore(RevokedTokenRepository revokedTokenRepository,
+                              UserRevocationRepository userRevocationRepository) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.userRevocationRepository = userRevocationRepository;
+    }
+
+    @Override
+    public void saveToken(String jti, Instant expiresAt, Instant revokedAt) {
+        revokedTokenRepository.save(new RevokedToken(jti, expiresAt, revokedAt));
+    }
+
+    @Override
+    public void saveUserCutoff(String username, Instant revokedBefore, Instant updatedAt) {
+        userRevocationRepository.save(new UserRevocation(username, revokedBefore, updatedAt));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RevokedToken> findTokensRevokedSince(Instant since) {
+        return revokedTokenRepository.findByRevokedAtAfter(since);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserRevocation> findUserCutoffsSince(Instant since) {
+        return userRevocationRepository.findByUpdatedAtAfter(since);
+    }
+
+    @Override
+    @Transactional
+    public void purge(Instant now, Instant oldestRelevantCutoff) {
+        revokedTokenRepository.deleteExpired(now);
+        userRevocationRepository.deleteRevokedBefore(oldestRelevantCutoff);
+    }
+}
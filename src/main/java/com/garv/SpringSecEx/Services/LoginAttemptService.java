@@ -0,0 +1,79 @@
+package com.garv.SpringSecEx.Services;
+
+import com.garv.SpringSecEx.Repository.UserRepository;
+import com.garv.SpringSecEx.event.UserChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Progressive account lockout. After auth.lockout.threshold consecutive failures the
+ * account is locked, and each further failure doubles the lock up to a maximum.
+ * The lock is stored on Users.lockedUntil and enforced through
+ * UserPrincipal#isAccountNonLocked, which DaoAuthenticationProvider checks before
+ * comparing the password, so a locked account costs no hashing.
+ * Anyone who knows a username can trigger the lock, so it only gates password login:
+ * access tokens and refresh tokens already issued keep working.
+ */
+@Service
+public class LoginAttemptService {
+
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final int threshold;
+    private final Duration baseLock;
+    private final Duration maxLock;
+    private final Cache<String, AtomicInteger> failures;
+
+    public LoginAttemptService(UserRepository userRepository,
+                               ApplicationEventPublisher eventPublisher,
+                               @Value("${auth.lockout.enabled:false}") boolean enabled,
+                               @Value("${auth.lockout.threshold:5}") int threshold,
+                               @Value("${auth.lockout.base-duration:1m}") Duration baseLock,
+                               @Value("${auth.lockout.max-duration:1h}") Duration maxLock) {
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.threshold = threshold;
+        this.baseLock = baseLock;
+        this.maxLock = maxLock;
+        this.failures = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(maxLock)
+                .build();
+    }
+
+    @Transactional
+    public void loginFailed(String username) {
+        if (!enabled || username == null) {
+            return;
+        }
+        int count = failures.get(username, key -> new AtomicInteger()).incrementAndGet();
+        if (count < threshold) {
+            return;
+        }
+
+        int doublings = Math.min(count - threshold, 20);
+        Duration lock = baseLock.multipliedBy(1L << doublings);
+        if (lock.compareTo(maxLock) > 0) {
+            lock = maxLock;
+        }
+        if (userRepository.lockUntil(username, Instant.now().plus(lock)) > 0) {
+            eventPublisher.publishEvent(new UserChangedEvent(username));
+        }
+    }
+
+    public void loginSucceeded(String username) {
+        if (enabled) {
+            failures.invalidate(username);
+        }
+    }
+}
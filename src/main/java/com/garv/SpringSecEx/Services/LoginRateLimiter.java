@@ -0,0 +1,72 @@
+package com.garv.SpringSecEx.Services;
+
+import com.garv.SpringSecEx.Utlity.TokenBucket;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Token-bucket limits on login attempts per client IP and per username. Buckets live in
+ * bounded caches that forget idle keys, so attack traffic from many addresses can't grow
+ * them without limit.
+ */
+@Service
+public class LoginRateLimiter {
+
+    private final boolean enabled;
+    private final int ipCapacity;
+    private final int ipRefillPerMinute;
+    private final int usernameCapacity;
+    private final int usernameRefillPerMinute;
+    private final Cache<String, TokenBucket> ipBuckets;
+    private final Cache<String, TokenBucket> usernameBuckets;
+
+    public LoginRateLimiter(@Value("${auth.rate-limit.enabled:true}") boolean enabled,
+                            @Value("${auth.rate-limit.ip.capacity:20}") int ipCapacity,
+                            @Value("${auth.rate-limit.ip.refill-per-minute:20}") int ipRefillPerMinute,
+                            @Value("${auth.rate-limit.username.capacity:5}") int usernameCapacity,
+                            @Value("${auth.rate-limit.username.refill-per-minute:5}") int usernameRefillPerMinute,
+                            @Value("${auth.rate-limit.max-tracked-keys:100000}") long maxTrackedKeys) {
+        this.enabled = enabled;
+        this.ipCapacity = ipCapacity;
+        this.ipRefillPerMinute = ipRefillPerMinute;
+        this.usernameCapacity = usernameCapacity;
+        this.usernameRefillPerMinute = usernameRefillPerMinute;
+        this.ipBuckets = newBucketCache(maxTrackedKeys);
+        this.usernameBuckets = newBucketCache(maxTrackedKeys);
+    }
+
+    /**
+     * Take one attempt from the IP bucket and, if known, from the username bucket.
+     * @return 0 if the attempt may proceed, otherwise seconds the client should wait
+     */
+    public long tryAcquire(String clientIp, String username) {
+        if (!enabled) {
+            return 0;
+        }
+
+        TokenBucket ipBucket = ipBuckets.get(clientIp, key -> new TokenBucket(ipCapacity, ipRefillPerMinute));
+        if (!ipBucket.tryConsume()) {
+            return Math.max(1, ipBucket.secondsUntilRefill());
+        }
+
+        if (username != null && !username.isBlank()) {
+            TokenBucket userBucket = usernameBuckets.get(username,
+                    key -> new TokenBucket(usernameCapacity, usernameRefillPerMinute));
+            if (!userBucket.tryConsume()) {
+                return Math.max(1, userBucket.secondsUntilRefill());
+            }
+        }
+        return 0;
+    }
+
+    private static Cache<String, TokenBucket> newBucketCache(long maxTrackedKeys) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+    }
+}
@@ -2,31 +2,80 @@ package com.garv.SpringSecEx.Services;
 
 import com.garv.SpringSecEx.Entity.UserPrincipal;
 import com.garv.SpringSecEx.Entity.Users;
+import com.garv.SpringSecEx.Repository.UserCredentials;
 import com.garv.SpringSecEx.Repository.UserRepository;
+import com.garv.SpringSecEx.Utlity.DatabaseBulkhead;
+import com.garv.SpringSecEx.Utlity.UsernameNormalizer;
+import com.garv.SpringSecEx.event.UserChangedEvent;
+import com.garv.SpringSecEx.exception.UserNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
-public class MyUserDetailsService implements UserDetailsService {
+public class MyUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DatabaseBulkhead databaseBulkhead;
+    private final RoleRegistry roleRegistry;
+    private final ReadYourWrites readYourWrites;
 
     @Autowired
-    public MyUserDetailsService(UserRepository userRepository) {
+    public MyUserDetailsService(UserRepository userRepository, ApplicationEventPublisher eventPublisher,
+                                DatabaseBulkhead databaseBulkhead, RoleRegistry roleRegistry,
+                                ReadYourWrites readYourWrites) {
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.databaseBulkhead = databaseBulkhead;
+        this.roleRegistry = roleRegistry;
+        this.readYourWrites = readYourWrites;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
 
-        Users users = userRepository.findByUsername(username);
+        // Every row is stored normalized (V3__normalized_usernames.sql folded the older ones)
+        String normalized = UsernameNormalizer.normalize(username);
+        UserCredentials credentials = databaseBulkhead.call(() -> findCredentials(normalized));
 
+        if (credentials == null) {
+            throw new UserNotFoundException("User not found"); // fixed message: this runs for every unknown login
+        }
+        return principalFor(credentials.toUsers());
+    }
+
+    // Read-only, so served by a replica when there are any
+    private UserCredentials findCredentials(String username) {
+        return readYourWrites.read(username, () -> userRepository.findCredentialsByUsername(username));
+    }
+
+    /**
+     * Wrap a loaded user with the authorities of its role mask.
+     */
+    public UserPrincipal principalFor(Users users) {
+        return roleRegistry.principal(users);
+    }
+
+    /**
+     * Called by DaoAuthenticationProvider after a successful login when the stored hash
+     * uses an outdated algorithm or cost, with the password already re-encoded.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        Users users = userRepository.findByUsername(user.getUsername());
         if (users == null) {
-            throw new UsernameNotFoundException("User not found: " + username);
+            return user;
         }
-        return new UserPrincipal(users);
+        users.setPassword(newPassword);
+        userRepository.save(users);
+        eventPublisher.publishEvent(new UserChangedEvent(users.getUsername()));
+        return principalFor(users);
     }
 }
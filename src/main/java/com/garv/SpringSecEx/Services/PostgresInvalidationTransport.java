@@ -0,0 +1,132 @@
+package com.garv.SpringSecEx.Services;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * PostgreSQL LISTEN/NOTIFY transport. Messages are sent with pg_notify on a pooled
+ * connection; inside a transaction they go out on commit, so other nodes never hear
+ * about a change before they can read it. One pooled connection per node is held for
+ * LISTEN, so count it in spring.datasource.hikari.maximum-pool-size.
+ * <p>
+ * NOTIFY is not queued for a listener that is disconnected, so every reconnect is
+ * reported as a gap.
+ */
+@Service
+@ConditionalOnProperty(name = "auth.invalidation.transport", havingValue = "postgres")
+public class PostgresInvalidationTransport implements InvalidationTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresInvalidationTransport.class);
+    static final String CHANNEL = "auth_invalidation";
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration pollTimeout;
+    private final Duration reconnectDelay;
+    private volatile boolean running;
+    private Thread listener;
+
+    public PostgresInvalidationTransport(DataSource dataSource,
+                                         @Value("${auth.invalidation.poll-timeout:500ms}") Duration pollTimeout,
+                                         @Value("${auth.invalidation.reconnect-delay:2s}") Duration reconnectDelay) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.pollTimeout = pollTimeout;
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    @Override
+    public void send(String message) {
+        // pg_notify rather than NOTIFY so the payload is a bind parameter
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // Delivered when the surrounding transaction commits
+            jdbcTemplate.query("select pg_notify(?, ?)", (ResultSetExtractor<Void>) rs -> null, CHANNEL, message);
+            return;
+        }
+        // Pools may hand out connections with autocommit off (prod profile); commit explicitly
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("select pg_notify(?, ?)")) {
+            statement.setString(1, CHANNEL);
+            statement.setString(2, message);
+            statement.execute();
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("pg_notify failed", e);
+        }
+    }
+
+    @Override
+    public void start(Consumer<String> receiver, Runnable onGap) {
+        running = true;
+        // A platform thread: it spends its life blocked in getNotifications on a socket read
+        listener = new Thread(() -> listen(receiver, onGap), "invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    private void listen(Consumer<String> receiver, Runnable onGap) {
+        boolean connectedBefore = false;
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true); // LISTEN only takes effect once committed
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (connectedBefore) {
+                    onGap.run();
+                }
+                connectedBefore = true;
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollTimeout.toMillis());
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receiver.accept(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Invalidation listener lost its connection, reconnecting in {}: {}",
+                            reconnectDelay, e.getMessage());
+                    sleep(reconnectDelay);
+                }
+            }
+        }
+    }
+
+    private static void sleep(Duration delay) {
+        try {
+            Thread.sleep(delay.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.garv.SpringSecEx.Services;
+
+import com.garv.SpringSecEx.Utlity.ReplicaRoutingDataSource;
+import com.garv.SpringSecEx.event.UserChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Keeps user lookups consistent with recent writes when reads go to replicas. For a
+ * short window after a user is registered or changed (any {@link UserChangedEvent},
+ * including those from other nodes) lookups of that user read the primary. A lookup
+ * that finds nothing on a replica is retried on the primary, which covers users
+ * registered elsewhere whose event has not arrived yet.
+ * <p>
+ * Without replicas (auth.datasource.replicas.enabled=false) lookups run unchanged.
+ */
+@Service
+public class ReadYourWrites {
+
+    private final boolean enabled;
+    private final Cache<String, Boolean> recentWrites;
+
+    public ReadYourWrites(@Value("${auth.datasource.replicas.enabled:false}") boolean enabled,
+                          @Value("${auth.datasource.read-your-writes-window:5s}") Duration window) {
+        this.enabled = enabled;
+        this.recentWrites = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(100_000)
+                .build();
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (enabled) {
+            recentWrites.put(event.username(), Boolean.TRUE);
+        }
+    }
+
+    /**
+     * @param lookup read of the given user that returns null when it does not exist
+     */
+    public <T> T read(String username, Supplier<T> lookup) {
+        if (!enabled) {
+            return lookup.get();
+        }
+        if (recentWrites.getIfPresent(username) != null) {
+            return ReplicaRoutingDataSource.onPrimary(lookup);
+        }
+        T result = lookup.get();
+        return result != null ? result : ReplicaRoutingDataSource.onPrimary(lookup);
+    }
+}
@@ -0,0 +1,63 @@
+package com.garv.SpringSecEx.Services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.garv.SpringSecEx.Entity.Users;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Redis-backed user cache tier shared by all nodes. Redis failures are treated as
+ * cache misses so authentication keeps working against the database.
+ */
+@Service
+@ConditionalOnProperty(name = "auth.user-cache.remote", havingValue = "redis")
+public class RedisRemoteUserCache implements RemoteUserCache {
+
+    private static final String KEY_PREFIX = "auth:user:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+
+    public RedisRemoteUserCache(StringRedisTemplate redisTemplate,
+                                ObjectMapper objectMapper,
+                                @Value("${auth.user-cache.remote-ttl:30m}") Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public Users get(String username) {
+        try {
+            String json = redisTemplate.opsForValue().get(KEY_PREFIX + username);
+            return json != null ? objectMapper.readValue(json, Users.class) : null;
+        } catch (DataAccessException | JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void put(Users user) {
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + user.getUsername(), objectMapper.writeValueAsString(user), ttl);
+        } catch (DataAccessException | JsonProcessingException e) {
+            // Not cached; the next lookup goes to the database
+        }
+    }
+
+    @Override
+    public void evict(String username) {
+        try {
+            redisTemplate.delete(KEY_PREFIX + username);
+        } catch (DataAccessException e) {
+            // Entry expires on its own after the TTL
+        }
+    }
+}
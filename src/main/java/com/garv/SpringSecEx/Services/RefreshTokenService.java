@@ -0,0 +1,131 @@
+package com.garv.SpringSecEx.Services;
+
+import com.garv.SpringSecEx.Entity.RefreshToken;
+import com.garv.SpringSecEx.Repository.RefreshTokenRepository;
+import com.garv.SpringSecEx.Utlity.JwtUtil;
+import com.garv.SpringSecEx.Utlity.TokenDigest;
+import com.garv.SpringSecEx.exception.InvalidTokenException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Issues and rotates refresh tokens. Every issued token is recorded by hash, so a
+ * refresh token can be used exactly once; presenting a used token again is treated
+ * as theft and revokes the whole family descended from that login.
+ */
+@Service
+public class RefreshTokenService {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final JwtUtil jwtUtil;
+    private final int maxSessionsPerUser;
+    private final int purgeBatchSize;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               JwtUtil jwtUtil,
+                               @Value("${auth.refresh.max-sessions-per-user:10}") int maxSessionsPerUser,
+                               @Value("${auth.refresh.purge-batch-size:1000}") int purgeBatchSize) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.jwtUtil = jwtUtil;
+        this.maxSessionsPerUser = maxSessionsPerUser;
+        this.purgeBatchSize = purgeBatchSize;
+    }
+
+    /**
+     * Issue a refresh token for a new login, starting a new family. The oldest sessions
+     * are revoked once the user exceeds the configured maximum.
+     * @param username Authenticated user
+     * @return Signed refresh token
+     */
+    @Transactional
+    public String issueForLogin(String username) {
+        List<RefreshToken> active = refreshTokenRepository
+                .findByUsernameAndRevokedFalseAndExpiresAtAfterOrderByCreatedAtAsc(username, Instant.now());
+        for (int i = 0; i <= active.size() - maxSessionsPerUser; i++) {
+            refreshTokenRepository.revokeFamily(active.get(i).getFamilyId());
+        }
+        return issue(username, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Exchange a refresh token for a new one in the same family.
+     * @param refreshToken Refresh token whose signature and expiry were already verified
+     * @param username Subject of the refresh token
+     * @return New refresh token
+     * @throws InvalidTokenException if the token is unknown or was already used
+     */
+    @Transactional(noRollbackFor = InvalidTokenException.class)
+    public String rotate(String refreshToken, String username) {
+        RefreshToken stored = refreshTokenRepository.findByTokenHash(hash(refreshToken));
+        if (stored == null || !stored.getUsername().equals(username)) {
+            throw new InvalidTokenException("Invalid or expired refresh token");
+        }
+
+        if (stored.isRevoked() || refreshTokenRepository.markUsed(stored.getId(), Instant.now()) == 0) {
+            // Reuse of a rotated token: whoever holds the family can no longer refresh
+            refreshTokenRepository.revokeFamily(stored.getFamilyId());
+            throw new InvalidTokenException("Refresh token reuse detected");
+        }
+
+        return issue(username, stored.getFamilyId());
+    }
+
+    /**
+     * Revoke the family of a refresh token (logout of one session). Tokens that are
+     * unknown or belong to someone else are ignored.
+     */
+    @Transactional
+    public void revokeFamily(String refreshToken, String username) {
+        RefreshToken stored = refreshTokenRepository.findByTokenHash(hash(refreshToken));
+        if (stored != null && stored.getUsername().equals(username)) {
+            refreshTokenRepository.revokeFamily(stored.getFamilyId());
+        }
+    }
+
+    @Transactional
+    public void revokeAllForUser(String username) {
+        refreshTokenRepository.revokeAllForUser(username);
+    }
+
+    /**
+     * Delete expired rows in batches so the purge never holds a long transaction.
+     */
+    @Scheduled(fixedDelayString = "${auth.refresh.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        List<Long> expiredIds;
+        do {
+            expiredIds = refreshTokenRepository.findExpiredIds(now, PageRequest.of(0, purgeBatchSize));
+            if (!expiredIds.isEmpty()) {
+                refreshTokenRepository.deleteAllByIdInBatch(expiredIds);
+            }
+        } while (expiredIds.size() == purgeBatchSize);
+    }
+
+    private String issue(String username, String familyId) {
+        String token = jwtUtil.generateRefreshToken(username);
+        Instant now = Instant.now();
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setTokenHash(hash(token));
+        refreshToken.setUsername(username);
+        refreshToken.setFamilyId(familyId);
+        refreshToken.setCreatedAt(now);
+        refreshToken.setExpiresAt(now.plusMillis(jwtUtil.getRefreshTokenExpirationMs()));
+        refreshTokenRepository.save(refreshToken);
+
+        return token;
+    }
+
+    private static String hash(String token) {
+        return HexFormat.of().formatHex(TokenDigest.sha256(token));
+    }
+}
@@ -0,0 +1,19 @@
+package com.garv.SpringSecEx.Services;
+
+import com.garv.SpringSecEx.Entity.Users;
+
+/**
+ * Optional second cache tier shared between nodes, consulted by
+ * {@link CachedUserDetailsService} after its in-process cache and before the database.
+ */
+public interface RemoteUserCache {
+
+    /**
+     * @return a detached copy of the cached user, or null on a miss
+     */
+    Users get(String username);
+
+    void put(Users user);
+
+    void evict(String username);
+}
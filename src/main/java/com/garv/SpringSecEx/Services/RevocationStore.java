@@ -0,0 +1,29 @@
+package com.garv.SpringSecEx.Services;
+
+import com.garv.SpringSecEx.Entity.RevokedToken;
+import com.garv.SpringSecEx.Entity.UserRevocation;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Shared backing store for revocations, so every node's {@link TokenRevocationService}
+ * sees logouts made on the others. Nodes write through to it and periodically pull
+ * what changed since their last sync.
+ */
+public interface RevocationStore {
+
+    void saveToken(String jti, Instant expiresAt, Instant revokedAt);
+
+    void saveUserCutoff(String username, Instant revokedBefore, Instant updatedAt);
+
+    List<RevokedToken> findTokensRevokedSince(Instant since);
+
+    List<UserRevocation> findUserCutoffsSince(Instant since);
+
+    /**
+     * Delete token revocations that expired before now and user cutoffs older than
+     * the longest token lifetime.
+     */
+    void purge(Instant now, Instant oldestRelevantCutoff);
+}
@@ -0,0 +1,101 @@
+package com.garv.SpringSecEx.Services;
+
+import com.garv.SpringSecEx.Entity.UserPrincipal;
+import com.garv.SpringSecEx.Entity.Users;
+import com.garv.SpringSecEx.Repository.RoleRepository;
+import com.garv.SpringSecEx.Utlity.RoleAuthorities;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Holds the current {@link RoleAuthorities} snapshot. Role definitions change rarely,
+ * so they are read once at startup and re-read periodically; a new snapshot (with its
+ * own authority-set memo) is only published when a definition actually changed.
+ */
+@Service
+public class RoleRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(RoleRegistry.class);
+
+    public static final String USER = "USER";
+    public static final String ADMIN = "ADMIN";
+    public static final String GATEWAY = "GATEWAY"; // service accounts calling /auth/introspect
+    public static final long DEFAULT_ROLE_MASK = 1L; // USER
+
+    private final RoleRepository roleRepository;
+    private volatile RoleAuthorities current;
+
+    public RoleRegistry(RoleRepository roleRepository) {
+        this.roleRepository = roleRepository;
+        this.current = new RoleAuthorities(0, defaultRoles());
+    }
+
+    // Built-in roles, created on first start; bits 0 to 2 are reserved for them
+    public static List<RoleAuthorities.RoleDefinition> defaultRoles() {
+        return List.of(
+                new RoleAuthorities.RoleDefinition(USER, 0, Set.of(), Set.of()),
+                new RoleAuthorities.RoleDefinition(ADMIN, 1, Set.of(USER), Set.of("users:import", "users:roles")),
+                new RoleAuthorities.RoleDefinition(GATEWAY, 2, Set.of(), Set.of("tokens:introspect"))
+        );
+    }
+
+    @PostConstruct
+    void init() {
+        Set<Integer> usedBits = new HashSet<>();
+        roleRepository.findAll().forEach(role -> usedBits.add(role.getBit()));
+        for (RoleAuthorities.RoleDefinition role : defaultRoles()) {
+            if (roleRepository.findByName(role.name()) != null) {
+                continue;
+            }
+            if (!usedBits.add(role.bit())) {
+                // A role defined before this built-in one existed holds its bit
+                log.warn("Not creating built-in role {}: bit {} is taken", role.name(), role.bit());
+            } else if (roleRepository.insertIfAbsent(role.name(), role.bit(), role.includes(), role.permissions())) {
+                log.info("Created built-in role {}", role.name());
+            }
+        }
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${auth.roles.reload-interval-ms:60000}")
+    public void reload() {
+        List<RoleAuthorities.RoleDefinition> definitions = roleRepository.findAll().stream()
+                .map(role -> new RoleAuthorities.RoleDefinition(
+                        role.getName(), role.getBit(), Set.copyOf(role.getIncludes()), Set.copyOf(role.getPermissions())))
+                .toList();
+        RoleAuthorities previous = current;
+        if (previous.definitions().equals(Set.copyOf(definitions))) {
+            return;
+        }
+        current = new RoleAuthorities(previous.version() + 1, definitions);
+        log.info("Loaded {} role definitions (version {})", definitions.size(), current.version());
+    }
+
+    public RoleAuthorities current() {
+        return current;
+    }
+
+    /**
+     * @return shared, unmodifiable authorities for the role mask
+     */
+    public Set<GrantedAuthority> authoritiesFor(long roleMask) {
+        return current.authoritiesFor(roleMask);
+    }
+
+    public long maskOf(Collection<String> roleNames) {
+        return current.maskOf(roleNames);
+    }
+
+    public UserPrincipal principal(Users user) {
+        return new UserPrincipal(user, authoritiesFor(user.getRoleMask()));
+    }
+}
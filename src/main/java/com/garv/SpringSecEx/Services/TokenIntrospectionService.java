@@ -0,0 +1,124 @@
+package com.garv.SpringSecEx.Services;
+
+import com.garv.SpringSecEx.Utlity.AuthMetrics;
+import com.garv.SpringSecEx.Utlity.InvalidTokenReason;
+import com.garv.SpringSecEx.Utlity.VerifiedToken;
+import com.garv.SpringSecEx.Utlity.VerifiedTokenCache;
+import com.garv.SpringSecEx.dto.TokenIntrospection;
+import io.jsonwebtoken.JwtException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks batches of tokens for gateways (/auth/introspect): the signature and expiry
+ * through {@link VerifiedTokenCache}, then the same {@link AccessTokenPolicy} decision
+ * JwtFilter makes. Active results report the authorities the token would be granted.
+ * Refresh tokens are always inactive: they do
+ * not authenticate requests, and whether one is still usable is decided by its
+ * server-side family at /auth/refresh, not by its signature.
+ * <p>
+ * Tokens of a batch are checked in parallel on a small pool; the caller thread helps
+ * when it is full. Each result says how long it may be cached: never past the token's
+ * expiry, and never longer than auth.introspect.max-cache-age, which bounds how late a
+ * gateway notices a revocation.
+ */
+@Service
+public class TokenIntrospectionService {
+
+    private static final int INLINE_BATCH = 4; // below this, handing off costs more than it saves
+
+    private final VerifiedTokenCache tokenCache;
+    private final AccessTokenPolicy accessTokenPolicy;
+    private final AuthMetrics authMetrics;
+    private final int maxBatch;
+    private final long maxCacheSeconds;
+    private final ThreadPoolExecutor executor;
+
+    public TokenIntrospectionService(VerifiedTokenCache tokenCache,
+                                     AccessTokenPolicy accessTokenPolicy,
+                                     AuthMetrics authMetrics,
+                                     @Value("${auth.introspect.max-batch:100}") int maxBatch,
+                                     @Value("${auth.introspect.max-cache-age:30s}") Duration maxCacheAge,
+                                     @Value("${auth.introspect.threads:0}") int threads) {
+        this.tokenCache = tokenCache;
+        this.accessTokenPolicy = accessTokenPolicy;
+        this.authMetrics = authMetrics;
+        this.maxBatch = maxBatch;
+        this.maxCacheSeconds = maxCacheAge.toSeconds();
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(maxBatch),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "token-introspect-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    public int getMaxBatch() {
+        return maxBatch;
+    }
+
+    /**
+     * @return one result per token, in the same order
+     */
+    public List<TokenIntrospection> introspect(List<String> tokens) {
+        return authMetrics.timeService("introspect", () -> {
+            if (tokens.size() <= INLINE_BATCH) {
+                return tokens.stream().map(this::introspect).toList();
+            }
+            List<CompletableFuture<TokenIntrospection>> results = tokens.stream()
+                    .map(token -> CompletableFuture.supplyAsync(() -> introspect(token), executor))
+                    .toList();
+            try {
+                return results.stream().map(CompletableFuture::join).toList();
+            } catch (CompletionException e) {
+                // e.g. ServiceBusyException from a user lookup, for the exception handler
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        });
+    }
+
+    TokenIntrospection introspect(String token) {
+        VerifiedToken verified;
+        try {
+            verified = tokenCache.verify(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            // Invalid, badly signed and expired tokens stay that way
+            return TokenIntrospection.inactive(InvalidTokenReason.of(e).tag(), maxCacheSeconds);
+        }
+        AccessTokenPolicy.Decision decision = accessTokenPolicy.check(verified);
+        if (!decision.isAccepted()) {
+            // The user may be created any moment
+            long cacheSeconds = decision.reason() == InvalidTokenReason.UNKNOWN_USER ? 0 : maxCacheSeconds;
+            return TokenIntrospection.inactive(decision.reason().tag(), cacheSeconds);
+        }
+
+        List<String> authorities = decision.principal().getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority).sorted().toList();
+        long remaining = Math.max(0, verified.expiresAt().getEpochSecond() - Instant.now().getEpochSecond());
+        return TokenIntrospection.active(verified.subject(), verified.type(), verified.expiresAt().getEpochSecond(),
+                authorities, Math.min(remaining, maxCacheSeconds));
+    }
+}
@@ -0,0 +1,209 @@
+package com.garv.SpringSecEx.Services;
+
+import com.garv.SpringSecEx.Entity.RevokedToken;
+import com.garv.SpringSecEx.Entity.UserRevocation;
+import com.garv.SpringSecEx.Utlity.BloomFilter;
+import com.garv.SpringSecEx.Utlity.VerifiedToken;
+import com.garv.SpringSecEx.event.InvalidationEvent;
+import com.garv.SpringSecEx.event.InvalidationGapEvent;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory token revocation checked by JwtFilter on every request.
+ * <p>
+ * Revoked token ids (jti) are held until the token would have expired anyway, with a
+ * Bloom filter in front so the common "not revoked" answer never touches the map.
+ * Per-user cutoffs revoke every token of a user issued before an instant.
+ * When a {@link RevocationStore} is configured, revocations are written through to it
+ * and pulled from it periodically so all nodes converge. With an {@link InvalidationBus}
+ * they also reach the other nodes right away, and the periodic pull is only the fallback.
+ */
+@Service
+public class TokenRevocationService {
+
+    // Re-read a little before the last sync so clock skew between nodes can't hide rows
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(30);
+
+    private final RevocationStore store;
+    private final InvalidationBus invalidationBus;
+    private final Duration maxTokenLifetime;
+    private final int expectedRevocations;
+
+    private final Map<String, Instant> revokedTokens = new ConcurrentHashMap<>();
+    private final Map<String, Instant> userCutoffs = new ConcurrentHashMap<>();
+    private final ReentrantLock filterLock = new ReentrantLock();
+    private volatile BloomFilter filter;
+    private volatile Instant lastSync = Instant.EPOCH;
+
+    public TokenRevocationService(ObjectProvider<RevocationStore> store,
+                                  Duration maxTokenLifetime,
+                                  int expectedRevocations) {
+        this(store, null, maxTokenLifetime, expectedRevocations);
+    }
+
+    @Autowired
+    public TokenRevocationService(ObjectProvider<RevocationStore> store,
+                                  ObjectProvider<InvalidationBus> invalidationBus,
+                                  @Value("${jwt.revocation.max-token-lifetime:7d}") Duration maxTokenLifetime,
+                                  @Value("${jwt.revocation.expected-revocations:100000}") int expectedRevocations) {
+        this.store = store.getIfAvailable();
+        this.invalidationBus = invalidationBus != null ? invalidationBus.getIfAvailable() : null;
+        this.maxTokenLifetime = maxTokenLifetime;
+        this.expectedRevocations = expectedRevocations;
+        this.filter = new BloomFilter(expectedRevocations, 0.01);
+    }
+
+    /**
+     * @return true if the token was revoked by id or by a cutoff for its user
+     */
+    public boolean isRevoked(VerifiedToken token) {
+        if (!userCutoffs.isEmpty() && token.issuedAt() != null) {
+            Instant cutoff = userCutoffs.get(token.subject());
+            if (cutoff != null && token.issuedAt().isBefore(cutoff)) {
+                return true;
+            }
+        }
+
+        String jti = token.id();
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        return revokedTokens.containsKey(jti);
+    }
+
+    /**
+     * Revoke a single token until it expires.
+     */
+    public void revoke(VerifiedToken token) {
+        if (token.id() == null) {
+            return;
+        }
+        Instant expiresAt = token.expiresAt() != null ? token.expiresAt() : Instant.now().plus(maxTokenLifetime);
+        applyTokenRevocation(token.id(), expiresAt);
+        if (store != null) {
+            store.saveToken(token.id(), expiresAt, Instant.now());
+        }
+        if (invalidationBus != null) {
+            invalidationBus.broadcast(InvalidationEvent.Type.TOKEN_REVOKED, token.id(), expiresAt);
+        }
+    }
+
+    /**
+     * Revoke every token of the user issued before the given instant.
+     * <p>
+     * iat only has second precision, so the cutoff is rounded up to the next second:
+     * a token issued in the same second as the call is revoked too.
+     */
+    public void revokeAllBefore(String username, Instant instant) {
+        Instant cutoff = instant.truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        applyUserCutoff(username, cutoff);
+        if (store != null) {
+            store.saveUserCutoff(username, cutoff, Instant.now());
+        }
+        if (invalidationBus != null) {
+            invalidationBus.broadcast(InvalidationEvent.Type.USER_CUTOFF, username, cutoff);
+        }
+    }
+
+    /**
+     * Record a token revocation locally without writing it to the store.
+     */
+    public void applyTokenRevocation(String jti, Instant expiresAt) {
+        if (expiresAt.isBefore(Instant.now())) {
+            return;
+        }
+        filterLock.lock();
+        try {
+            revokedTokens.put(jti, expiresAt);
+            filter.add(jti);
+        } finally {
+            filterLock.unlock();
+        }
+    }
+
+    /**
+     * Record a per-user cutoff locally without writing it to the store.
+     */
+    public void applyUserCutoff(String username, Instant revokedBefore) {
+        userCutoffs.merge(username, revokedBefore, (current, next) -> next.isAfter(current) ? next : current);
+    }
+
+    /**
+     * Apply a revocation made on another node, received through the InvalidationBus.
+     */
+    @EventListener
+    public void onInvalidation(InvalidationEvent event) {
+        switch (event.type()) {
+            case TOKEN_REVOKED -> applyTokenRevocation(event.key(), event.until());
+            case USER_CUTOFF -> applyUserCutoff(event.key(), event.until());
+            default -> {
+            }
+        }
+    }
+
+    // Revocations may have been missed while the bus was down; catch up from the store now
+    @EventListener
+    public void onInvalidationGap(InvalidationGapEvent event) {
+        syncFromStore();
+    }
+
+    /**
+     * Drop revocations of tokens that have expired anyway and rebuild the Bloom filter,
+     * which cannot forget elements on its own.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        filterLock.lock();
+        try {
+            revokedTokens.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+            BloomFilter rebuilt = new BloomFilter(Math.max(expectedRevocations, revokedTokens.size() * 2), 0.01);
+            revokedTokens.keySet().forEach(rebuilt::add);
+            filter = rebuilt;
+        } finally {
+            filterLock.unlock();
+        }
+
+        Instant oldestRelevantCutoff = now.minus(maxTokenLifetime);
+        userCutoffs.values().removeIf(cutoff -> cutoff.isBefore(oldestRelevantCutoff));
+        if (store != null) {
+            store.purge(now, oldestRelevantCutoff);
+        }
+    }
+
+    /**
+     * Pull revocations made on other nodes since the last sync.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval-ms:10000}")
+    public void syncFromStore() {
+        if (store == null) {
+            return;
+        }
+        Instant syncStarted = Instant.now();
+        Instant since = lastSync.equals(Instant.EPOCH) ? Instant.EPOCH : lastSync.minus(SYNC_OVERLAP);
+
+        for (RevokedToken revoked : store.findTokensRevokedSince(since)) {
+            applyTokenRevocation(revoked.getJti(), revoked.getExpiresAt());
+        }
+        for (UserRevocation revocation : store.findUserCutoffsSince(since)) {
+            applyUserCutoff(revocation.getUsername(), revocation.getRevokedBefore());
+        }
+        lastSync = syncStarted;
+    }
+
+    public int revokedTokenCount() {
+        return revokedTokens.size();
+    }
+}
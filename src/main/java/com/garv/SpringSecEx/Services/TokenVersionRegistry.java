@@ -0,0 +1,92 @@
+package com.garv.SpringSecEx.Services;
+
+import com.garv.SpringSecEx.Repository.UserRepository;
+import com.garv.SpringSecEx.event.InvalidationGapEvent;
+import com.garv.SpringSecEx.event.UserChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Per-user token version used by stateless authentication. Access tokens carry the
+ * version they were issued with; bumping it invalidates every outstanding token of
+ * that user. Known versions are kept in memory so the database is only read when a
+ * user is first seen, after a bump, or once the entry ages out. Users that don't exist
+ * are cached too, so the tokens of a deleted user don't reach the primary on every
+ * request; registration and import publish UserChangedEvent, which clears the entry.
+ */
+@Service
+public class TokenVersionRegistry {
+
+    private static final int MISSING = -1; // versions start at 0
+
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Cache<String, Integer> versions;
+
+    public TokenVersionRegistry(UserRepository userRepository,
+                                ApplicationEventPublisher eventPublisher,
+                                @Value("${jwt.stateless.version-cache-ttl:5m}") Duration ttl,
+                                @Value("${jwt.stateless.version-cache-size:100000}") long maxSize) {
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * @return true if the user exists and tokenVersion is still current
+     */
+    public boolean isCurrent(String username, int tokenVersion) {
+        int current = versions.get(username, this::loadVersion);
+        return current != MISSING && current == tokenVersion;
+    }
+
+    // Caffeine does not cache null, so a missing user is stored as MISSING
+    private Integer loadVersion(String username) {
+        Integer version = userRepository.findTokenVersionByUsername(username);
+        return version != null ? version : MISSING;
+    }
+
+    /**
+     * Record a version just read from the database (login, refresh).
+     */
+    public void remember(String username, int tokenVersion) {
+        versions.put(username, tokenVersion);
+    }
+
+    /**
+     * Invalidate every token issued to the user so far. The cached version is dropped
+     * once the surrounding transaction commits (see {@link #onUserChanged}).
+     */
+    @Transactional
+    public void revokeAll(String username) {
+        userRepository.incrementTokenVersion(username);
+        eventPublisher.publishEvent(new UserChangedEvent(username));
+    }
+
+    public void forget(String username) {
+        versions.invalidate(username);
+    }
+
+    // After commit: a lookup racing the transaction would otherwise re-cache the old version
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        forget(event.username());
+    }
+
+    @EventListener
+    public void onInvalidationGap(InvalidationGapEvent event) {
+        versions.invalidateAll();
+    }
+}
@@ -0,0 +1,414 @@
+package com.garv.SpringSecEx.Services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.garv.SpringSecEx.Entity.Users;
+import com.garv.SpringSecEx.Repository.UserRepository;
+import com.garv.SpringSecEx.Utlity.BoundedPasswordEncoder;
+import com.garv.SpringSecEx.Utlity.UsernameNormalizer;
+import com.garv.SpringSecEx.dto.BulkRegisterResponse;
+import com.garv.SpringSecEx.dto.ImportEvent;
+import com.garv.SpringSecEx.dto.ImportUserRow;
+import com.garv.SpringSecEx.event.UserChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Bulk user creation for tenant onboarding.
+ * <p>
+ * Rows are processed in chunks: each chunk is validated, checked for existing usernames
+ * with one query, hashed in parallel on a dedicated pool (not the login hashing pool, so
+ * an import can't starve logins of queue slots) and written with batched inserts in its
+ * own transaction. Progress and rejected rows are reported to the caller as they happen.
+ * Once a chunk commits, a UserChangedEvent is published for each created user, as
+ * registration does, so no node keeps treating those names as unknown.
+ */
+@Service
+public class UserImportService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+
+    // Encoded hashes accepted as is; they match the ids configured in PasswordConfig
+    private static final Pattern ENCODED_HASH = Pattern.compile("^\\{(bcrypt|pbkdf2)}\\S+$");
+
+    private record ParsedRow(long line, ImportUserRow row, String error) {
+    }
+
+    private record ChunkResult(long created, long failed) {
+    }
+
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService hashingPool;
+    private final int chunkSize;
+
+    public UserImportService(UserRepository userRepository,
+                             ApplicationEventPublisher eventPublisher,
+                             PasswordEncoder passwordEncoder,
+                             PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper,
+                             @Value("${auth.import.chunk-size:1000}") int chunkSize,
+                             @Value("${auth.import.hashing-threads:0}") int hashingThreads) {
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        // The import bounds its own concurrency, so it bypasses the login hashing queue
+        this.passwordEncoder = passwordEncoder instanceof BoundedPasswordEncoder bounded
+                ? bounded.getDelegate()
+                : passwordEncoder;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        // Half the cores by default: the login hashing pool is sized to all of them, and both are CPU-bound
+        int threads = hashingThreads > 0 ? hashingThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.hashingPool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "user-import-hashing-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Create a batch of users sent in one request.
+     * @return counts and the rejected rows (line numbers are 1-based positions in the list)
+     */
+    public BulkRegisterResponse registerAll(List<ImportUserRow> rows) {
+        List<ImportEvent> errors = new ArrayList<>();
+        Iterator<ImportUserRow> source = rows.iterator();
+        Iterator<ParsedRow> parsed = new Iterator<>() {
+            private long line;
+
+            @Override
+            public boolean hasNext() {
+                return source.hasNext();
+            }
+
+            @Override
+            public ParsedRow next() {
+                return new ParsedRow(++line, source.next(), null);
+            }
+        };
+        ImportEvent done = importRows(parsed, event -> {
+            if (ImportEvent.ERROR.equals(event.getType())) {
+                errors.add(event);
+            }
+        });
+        return new BulkRegisterResponse(done.getCreated(), done.getFailed(), errors);
+    }
+
+    /**
+     * Stream users from CSV (header row naming username, password and/or passwordHash) or
+     * NDJSON (one ImportUserRow object per line). Rows are read lazily, so the input can
+     * be arbitrarily large.
+     * @param listener receives rejected rows, progress after every chunk and the totals
+     * @return the final totals
+     */
+    public ImportEvent importStream(InputStream input, boolean csv, Consumer<ImportEvent> listener) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        Iterator<ParsedRow> rows = csv ? csvRows(reader) : ndjsonRows(reader);
+        try {
+            return importRows(rows, listener);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private ImportEvent importRows(Iterator<ParsedRow> rows, Consumer<ImportEvent> listener) {
+        long processed = 0;
+        long created = 0;
+        long failed = 0;
+        List<ParsedRow> chunk = new ArrayList<>(chunkSize);
+
+        while (rows.hasNext()) {
+            chunk.add(rows.next());
+            if (chunk.size() == chunkSize || !rows.hasNext()) {
+                ChunkResult result = importChunk(chunk, listener);
+                processed += chunk.size();
+                created += result.created();
+                failed += result.failed();
+                listener.accept(ImportEvent.progress(processed, created, failed));
+                chunk.clear();
+            }
+        }
+
+        ImportEvent done = ImportEvent.done(processed, created, failed);
+        listener.accept(done);
+        return done;
+    }
+
+    private ChunkResult importChunk(List<ParsedRow> chunk, Consumer<ImportEvent> listener) {
+        long failed = 0;
+
+        // Validate and drop duplicates within the chunk
+        Map<String, ParsedRow> candidates = new LinkedHashMap<>();
+        for (ParsedRow parsed : chunk) {
+            if (parsed.row() != null) {
+                parsed.row().setUsername(UsernameNormalizer.normalize(parsed.row().getUsername()));
+            }
+            String error = validate(parsed);
+            if (error == null && candidates.containsKey(parsed.row().getUsername())) {
+                error = "Duplicate username in import";
+            }
+            if (error != null) {
+                listener.accept(ImportEvent.error(parsed.line(), username(parsed), error));
+                failed++;
+            } else {
+                candidates.put(parsed.row().getUsername(), parsed);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return new ChunkResult(0, failed);
+        }
+
+        // One query for the whole chunk
+        Set<String> existing = new HashSet<>(userRepository.findExistingUsernames(candidates.keySet()));
+        for (String username : existing) {
+            ParsedRow duplicate = candidates.remove(username);
+            if (duplicate != null) {
+                listener.accept(ImportEvent.error(duplicate.line(), username, "Username already exists"));
+                failed++;
+            }
+        }
+
+        // Hash in parallel, outside any transaction
+        List<ParsedRow> rows = new ArrayList<>(candidates.values());
+        List<CompletableFuture<Users>> hashing = rows.stream()
+                .map(parsed -> CompletableFuture.supplyAsync(() -> toUser(parsed.row()), hashingPool))
+                .toList();
+        List<ParsedRow> hashedRows = new ArrayList<>(rows.size());
+        List<Users> users = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            try {
+                users.add(hashing.get(i).join());
+                hashedRows.add(rows.get(i));
+            } catch (CompletionException e) {
+                // A row the encoder rejects is reported like any other bad row
+                log.debug("Hashing failed for import line {}: {}", rows.get(i).line(), e.getCause().getMessage());
+                listener.accept(ImportEvent.error(rows.get(i).line(), username(rows.get(i)), "Password could not be hashed"));
+                failed++;
+            }
+        }
+        if (users.isEmpty()) {
+            return new ChunkResult(0, failed);
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> userRepository.saveAll(users));
+            users.forEach(this::publishCreated);
+            return new ChunkResult(users.size(), failed);
+        } catch (DataIntegrityViolationException e) {
+            // Someone registered one of these names meanwhile: isolate it row by row
+            log.debug("Batch insert failed, retrying rows individually: {}", e.getMessage());
+            return saveIndividually(hashedRows, users, failed, listener);
+        }
+    }
+
+    private ChunkResult saveIndividually(List<ParsedRow> rows, List<Users> users, long failed,
+                                         Consumer<ImportEvent> listener) {
+        long created = 0;
+        for (int i = 0; i < users.size(); i++) {
+            Users user = users.get(i);
+            user.setId(null);
+            try {
+                transactionTemplate.executeWithoutResult(status -> userRepository.save(user));
+                publishCreated(user);
+                created++;
+            } catch (DataIntegrityViolationException e) {
+                listener.accept(ImportEvent.error(rows.get(i).line(), user.getUsername(), "Username already exists"));
+                failed++;
+            }
+        }
+        return new ChunkResult(created, failed);
+    }
+
+    private void publishCreated(Users user) {
+        eventPublisher.publishEvent(new UserChangedEvent(user.getUsername()));
+    }
+
+    private static String validate(ParsedRow parsed) {
+        if (parsed.error() != null) {
+            return parsed.error();
+        }
+        ImportUserRow row = parsed.row();
+        if (row.getUsername() == null || row.getUsername().isBlank()) {
+            return "Username is required";
+        }
+        boolean hasPassword = row.getPassword() != null && !row.getPassword().isEmpty();
+        boolean hasHash = row.getPasswordHash() != null && !row.getPasswordHash().isEmpty();
+        if (!hasPassword && !hasHash) {
+            return "Password is required";
+        }
+        if (hasHash && !ENCODED_HASH.matcher(row.getPasswordHash()).matches()) {
+            return "Unsupported password hash format";
+        }
+        return null;
+    }
+
+    private Users toUser(ImportUserRow row) {
+        Users user = new Users();
+        user.setUsername(row.getUsername());
+        user.setPassword(row.getPasswordHash() != null && !row.getPasswordHash().isEmpty()
+                ? row.getPasswordHash()
+                : passwordEncoder.encode(row.getPassword()));
+        return user;
+    }
+
+    private static String username(ParsedRow parsed) {
+        return parsed.row() != null ? parsed.row().getUsername() : null;
+    }
+
+    private Iterator<ParsedRow> ndjsonRows(BufferedReader reader) {
+        return new LineIterator(reader) {
+            @Override
+            ParsedRow parse(long line, String text) {
+                try {
+                    return new ParsedRow(line, objectMapper.readValue(text, ImportUserRow.class), null);
+                } catch (IOException e) {
+                    return new ParsedRow(line, null, "Malformed JSON");
+                }
+            }
+        };
+    }
+
+    private Iterator<ParsedRow> csvRows(BufferedReader reader) throws IOException {
+        String header = reader.readLine();
+        List<String> columns = header != null ? splitCsv(header) : List.of();
+        int usernameColumn = columns.indexOf("username");
+        int passwordColumn = columns.indexOf("password");
+        int hashColumn = columns.indexOf("passwordHash");
+        if (usernameColumn < 0 || (passwordColumn < 0 && hashColumn < 0)) {
+            throw new IllegalArgumentException("CSV header must name username and password or passwordHash");
+        }
+
+        return new LineIterator(reader, 1) {
+            @Override
+            ParsedRow parse(long line, String text) {
+                List<String> fields = splitCsv(text);
+                if (fields.size() != columns.size()) {
+                    return new ParsedRow(line, null, "Expected " + columns.size() + " fields");
+                }
+                return new ParsedRow(line, new ImportUserRow(
+                        fields.get(usernameColumn),
+                        passwordColumn >= 0 ? fields.get(passwordColumn) : null,
+                        hashColumn >= 0 ? fields.get(hashColumn) : null
+                ), null);
+            }
+        };
+    }
+
+    // Comma separated, fields optionally in double quotes with "" as an escaped quote
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Reads non-blank lines on demand, numbering them from the start of the input.
+     */
+    private abstract static class LineIterator implements Iterator<ParsedRow> {
+
+        private final BufferedReader reader;
+        private long line;
+        private String next;
+
+        LineIterator(BufferedReader reader) {
+            this(reader, 0);
+        }
+
+        LineIterator(BufferedReader reader, long linesAlreadyRead) {
+            this.reader = reader;
+            this.line = linesAlreadyRead;
+        }
+
+        abstract ParsedRow parse(long line, String text);
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (next == null) {
+                    String text = reader.readLine();
+                    if (text == null) {
+                        return false;
+                    }
+                    line++;
+                    if (!text.isBlank()) {
+                        next = text;
+                    }
+                }
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public ParsedRow next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String text = next;
+            next = null;
+            return parse(line, text);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        hashingPool.shutdownNow();
+    }
+}
@@ -1,26 +1,50 @@
 package com.garv.SpringSecEx.Services;
 
-import com.garv.SpringSecEx.Entity.Users;
+import com.garv.SpringSecEx.Entity.UserPrincipal;
+import com.garv.SpringSecEx.Repository.UserCredentials;
 import com.garv.SpringSecEx.Repository.UserRepository;
+import com.garv.SpringSecEx.Utlity.AuthMetrics;
+import com.garv.SpringSecEx.Utlity.DatabaseBulkhead;
 import com.garv.SpringSecEx.Utlity.JwtUtil;
+import com.garv.SpringSecEx.Utlity.UsernameNormalizer;
+import com.garv.SpringSecEx.Utlity.VerifiedToken;
 import com.garv.SpringSecEx.dto.AuthResponse;
 import com.garv.SpringSecEx.dto.LoginRequest;
 import com.garv.SpringSecEx.dto.RegisterRequest;
 import com.garv.SpringSecEx.dto.UserResponse;
+import com.garv.SpringSecEx.event.UserChangedEvent;
 import com.garv.SpringSecEx.exception.InvalidCredentialsException;
 import com.garv.SpringSecEx.exception.InvalidTokenException;
+import com.garv.SpringSecEx.exception.ServiceBusyException;
+import com.garv.SpringSecEx.exception.UnknownRoleException;
 import com.garv.SpringSecEx.exception.UserAlreadyExistsException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 
 @Service
 public class UserService {
 
+    private static final Logger log = LoggerFactory.getLogger(UserService.class);
+
     @Autowired
     private UserRepository userRepository;
 
@@ -30,7 +54,38 @@ public class UserService {
     @Autowired
     private AuthenticationManager authenticationManager;
 
-    private BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(12);
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TokenRevocationService revocationService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private LoginAttemptService loginAttemptService;
+
+    @Autowired
+    private AuthMetrics authMetrics;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private DatabaseBulkhead databaseBulkhead;
+
+    @Autowired
+    private RoleRegistry roleRegistry;
+
+    @Value("${auth.bootstrap.admin-username:}")
+    private String bootstrapAdminUsername;
+
+    @Autowired
+    private ReadYourWrites readYourWrites;
 
     private static final long ACCESS_TOKEN_EXPIRY_MS = 1000 * 60 * 60; // 1 hour
 
@@ -41,20 +96,21 @@ public class UserService {
      * @throws UserAlreadyExistsException if username already exists
      */
     public UserResponse register(RegisterRequest registerRequest) {
-        // Check if user already exists
-        Users existingUser = userRepository.findByUsername(registerRequest.getUsername());
-        if (existingUser != null) {
-            throw new UserAlreadyExistsException("Username already exists: " + registerRequest.getUsername());
+        return authMetrics.timeService("register", () -> doRegister(registerRequest));
+    }
+
+    private UserResponse doRegister(RegisterRequest registerRequest) {
+        String username = UsernameNormalizer.normalize(registerRequest.getUsername());
+        String password = passwordEncoder.encode(registerRequest.getPassword());
+
+        // Single statement against the unique index: a taken name comes back as null
+        Long id = databaseBulkhead.call(() -> userRepository.insertIfAbsent(username, password));
+        if (id == null) {
+            throw new UserAlreadyExistsException("Username already exists");
         }
+        eventPublisher.publishEvent(new UserChangedEvent(username));
 
-        // Create new user
-        Users user = new Users();
-        user.setUsername(registerRequest.getUsername());
-        user.setPassword(passwordEncoder.encode(registerRequest.getPassword()));
-        
-        Users savedUser = userRepository.save(user);
-        
-        return new UserResponse(savedUser.getId(), savedUser.getUsername());
+        return new UserResponse(id, username);
     }
 
     /**
@@ -64,6 +120,10 @@ public class UserService {
      * @throws InvalidCredentialsException if credentials are invalid
      */
     public AuthResponse login(LoginRequest loginRequest) {
+        return authMetrics.timeService("login", () -> doLogin(loginRequest));
+    }
+
+    private AuthResponse doLogin(LoginRequest loginRequest) {
         try {
             Authentication auth = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(
@@ -75,57 +135,167 @@ public class UserService {
             if (auth.isAuthenticated()) {
                 SecurityContextHolder.getContext().setAuthentication(auth);
 
-                String accessToken = jwtUtil.generateToken(loginRequest.getUsername());
-                String refreshToken = jwtUtil.generateRefreshToken(loginRequest.getUsername());
+                UserPrincipal principal = (UserPrincipal) auth.getPrincipal();
+                loginAttemptService.loginSucceeded(principal.getUsername());
+                tokenVersionRegistry.remember(principal.getUsername(), principal.getTokenVersion());
+
+                String accessToken = jwtUtil.generateToken(principal);
+                String refreshToken = refreshTokenService.issueForLogin(principal.getUsername());
 
                 return new AuthResponse(
                         accessToken,
                         refreshToken,
-                        loginRequest.getUsername(),
+                        principal.getUsername(),
                         ACCESS_TOKEN_EXPIRY_MS
                 );
             }
 
             throw new InvalidCredentialsException("Authentication failed");
+        } catch (ServiceBusyException e) {
+            throw e;
+        } catch (InternalAuthenticationServiceException e) {
+            // DaoAuthenticationProvider wraps errors from loading the user, including a full bulkhead
+            if (e.getCause() instanceof ServiceBusyException busy) {
+                throw busy;
+            }
+            throw new InvalidCredentialsException("Invalid username or password");
+        } catch (BadCredentialsException e) {
+            loginAttemptService.loginFailed(UsernameNormalizer.normalize(loginRequest.getUsername()));
+            throw new InvalidCredentialsException("Invalid username or password");
         } catch (Exception e) {
             throw new InvalidCredentialsException("Invalid username or password");
         }
     }
 
     /**
-     * Refresh access token using refresh token
+     * Refresh access token using refresh token. The refresh token is rotated: the one
+     * passed in can't be used again and a new one is returned. One transaction, so a
+     * failure after the rotation leaves the old token usable; a detected reuse still
+     * commits the family revocation.
      * @param refreshToken Refresh token
-     * @return AuthResponse with new access token
-     * @throws InvalidTokenException if refresh token is invalid
+     * @return AuthResponse with new access and refresh tokens
+     * @throws InvalidTokenException if refresh token is invalid, or its user is gone or disabled
      */
+    @Transactional(noRollbackFor = InvalidTokenException.class)
     public AuthResponse refreshAccessToken(String refreshToken) {
-        try {
-            String username = jwtUtil.extractUsername(refreshToken);
-            
-            if (jwtUtil.validateRefreshToken(refreshToken, username)) {
-                String newAccessToken = jwtUtil.generateToken(username);
-                
-                return new AuthResponse(
-                        newAccessToken,
-                        refreshToken,
-                        username,
-                        ACCESS_TOKEN_EXPIRY_MS
-                );
-            }
-            
-            throw new InvalidTokenException("Invalid refresh token");
-        } catch (Exception e) {
+        return authMetrics.timeService("refresh", () -> doRefreshAccessToken(refreshToken));
+    }
+
+    private AuthResponse doRefreshAccessToken(String refreshToken) {
+        VerifiedToken verified = jwtUtil.verifyRefreshToken(refreshToken);
+        if (verified == null || revocationService.isRevoked(verified)) {
             throw new InvalidTokenException("Invalid or expired refresh token");
         }
+
+        // Refresh is where the database is consulted again in stateless mode. Tokens issued
+        // before usernames were normalized carry the old spelling
+        String username = UsernameNormalizer.normalize(verified.subject());
+        UserCredentials user = databaseBulkhead.call(() ->
+                readYourWrites.read(username, () -> userRepository.findCredentialsByUsername(username)));
+        if (user == null) {
+            throw new InvalidTokenException("Invalid or expired refresh token");
+        }
+        // The failed-login lockout only gates password login, see LoginAttemptService
+        UserPrincipal principal = roleRegistry.principal(user.toUsers());
+        if (!principal.isEnabled()) {
+            throw new InvalidTokenException("Invalid or expired refresh token");
+        }
+
+        // Only consumed once the user is known to be allowed a new token
+        String newRefreshToken = refreshTokenService.rotate(refreshToken, username);
+        tokenVersionRegistry.remember(username, user.tokenVersion());
+
+        String newAccessToken = jwtUtil.generateToken(principal);
+
+        return new AuthResponse(
+                newAccessToken,
+                newRefreshToken,
+                username,
+                ACCESS_TOKEN_EXPIRY_MS
+        );
+    }
+
+    /**
+     * Logout user - revoke the access token used for this request and the refresh tokens
+     * of its session, and clear security context
+     * @param accessToken Verified access token of the current request, may be null
+     * @param refreshToken Refresh token of the session, whose family is revoked; when null
+     *                     every refresh token of the user is, since the session is unknown
+     */
+    public void logout(VerifiedToken accessToken, String refreshToken) {
+        if (accessToken != null) {
+            revocationService.revoke(accessToken);
+            String username = UsernameNormalizer.normalize(accessToken.subject());
+            if (refreshToken != null) {
+                refreshTokenService.revokeFamily(refreshToken, username);
+            } else {
+                refreshTokenService.revokeAllForUser(username);
+            }
+        }
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     * Replace the roles of a user and invalidate the tokens that carry the old ones
+     * @param username Username of the user to change
+     * @param roleNames Role names, see RoleRegistry
+     * @throws UnknownRoleException if a role does not exist
+     * @throws UsernameNotFoundException if the user does not exist
+     */
+    @Transactional
+    public void assignRoles(String username, Collection<String> roleNames) {
+        long roleMask;
+        try {
+            roleMask = roleRegistry.maskOf(roleNames);
+        } catch (IllegalArgumentException e) {
+            throw new UnknownRoleException(e.getMessage());
+        }
+
+        String normalized = UsernameNormalizer.normalize(username);
+        if (userRepository.updateRoleMask(normalized, roleMask) == 0) {
+            throw new UsernameNotFoundException("User not found: " + username);
+        }
+        tokenVersionRegistry.revokeAll(normalized);
+    }
+
+    /**
+     * Grant ADMIN to auth.bootstrap.admin-username at startup while no user has it, so a new
+     * deployment can reach the admin endpoints. Once an admin exists the setting does nothing,
+     * and removing ADMIN from that user later is not undone on restart.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void bootstrapAdmin() {
+        if (bootstrapAdminUsername == null || bootstrapAdminUsername.isBlank()) {
+            return;
+        }
+        long adminMask;
+        try {
+            adminMask = roleRegistry.maskOf(List.of(RoleRegistry.ADMIN));
+        } catch (IllegalArgumentException e) {
+            log.warn("Not bootstrapping an admin: {}", e.getMessage());
+            return;
+        }
+        if (userRepository.existsWithAnyRole(adminMask)) {
+            return;
+        }
+
+        String normalized = UsernameNormalizer.normalize(bootstrapAdminUsername);
+        if (userRepository.addRoles(normalized, adminMask) == 0) {
+            log.warn("Not bootstrapping an admin: user {} does not exist yet", normalized);
+            return;
+        }
+        tokenVersionRegistry.revokeAll(normalized); // tokens without the ADMIN bit in their mask
+        log.info("Granted {} to {}", RoleRegistry.ADMIN, normalized);
     }
 
     /**
-     * Logout user - clear security context
-     * Note: In a stateless JWT setup, actual token invalidation would require
-     * a token blacklist or database tracking which is beyond basic implementation.
-     * For now, we clear the security context.
+     * Logout user from every session - revoke all tokens issued to the user until now
+     * @param username Username of the authenticated user
      */
-    public void logout() {
+    public void logoutAll(String username) {
+        revocationService.revokeAllBefore(username, Instant.now());
+        refreshTokenService.revokeAllForUser(username);
         SecurityContextHolder.clearContext();
     }
 }
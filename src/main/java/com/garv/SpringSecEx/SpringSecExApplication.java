@@ -1,9 +1,14 @@
 package com.garv.SpringSecEx;
 
+import com.garv.SpringSecEx.Conig.AuthRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@ImportRuntimeHints(AuthRuntimeHints.class)
 public class SpringSecExApplication {
 
 	public static void main(String[] args) {
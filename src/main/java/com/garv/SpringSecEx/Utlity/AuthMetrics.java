@@ -0,0 +1,98 @@
+package com.garv.SpringSecEx.Utlity;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Meters for the authentication pipeline, all registered up front so the hot path only
+ * records into existing meters:
+ * <ul>
+ *     <li>auth.filter.phase - JwtFilter time per phase</li>
+ *     <li>auth.token.invalid - rejected bearer tokens by reason</li>
+ *     <li>auth.service - UserService operations by outcome</li>
+ * </ul>
+ */
+@Component
+public class AuthMetrics {
+
+    public enum FilterPhase {
+        VERIFY,           // parse and signature check (one pass in jjwt), or a cache hit
+        REVOCATION_CHECK,
+        USER_LOAD,
+        CONTEXT_SETUP
+    }
+
+    private final MeterRegistry registry;
+    private final Map<FilterPhase, Timer> phaseTimers = new EnumMap<>(FilterPhase.class);
+    private final Map<InvalidTokenReason, Counter> invalidTokenCounters = new EnumMap<>(InvalidTokenReason.class);
+    // Operations are a handful of constants, so their timers are built once and reused
+    private final Map<String, ServiceTimers> serviceTimers = new ConcurrentHashMap<>();
+
+    private record ServiceTimers(Timer success, Timer failure) {
+    }
+
+    public AuthMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (FilterPhase phase : FilterPhase.values()) {
+            phaseTimers.put(phase, Timer.builder("auth.filter.phase")
+                    .description("Time spent in each JwtFilter phase")
+                    .tag("phase", phase.name().toLowerCase())
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        for (InvalidTokenReason reason : InvalidTokenReason.values()) {
+            invalidTokenCounters.put(reason, Counter.builder("auth.token.invalid")
+                    .description("Bearer tokens rejected by JwtFilter")
+                    .tag("reason", reason.tag())
+                    .register(registry));
+        }
+    }
+
+    /**
+     * Record the time since startNanos against a filter phase.
+     * @return the current nanoTime, to be used as the start of the next phase
+     */
+    public long recordPhase(FilterPhase phase, long startNanos) {
+        long now = System.nanoTime();
+        phaseTimers.get(phase).record(now - startNanos, TimeUnit.NANOSECONDS);
+        return now;
+    }
+
+    public void invalidToken(InvalidTokenReason reason) {
+        invalidTokenCounters.get(reason).increment();
+    }
+
+    /**
+     * Time a UserService operation, tagged with its outcome.
+     */
+    public <T> T timeService(String operation, Supplier<T> action) {
+        ServiceTimers timers = serviceTimers.computeIfAbsent(operation,
+                key -> new ServiceTimers(serviceTimer(key, "success"), serviceTimer(key, "failure")));
+        Timer.Sample sample = Timer.start(registry);
+        boolean succeeded = false;
+        try {
+            T result = action.get();
+            succeeded = true;
+            return result;
+        } finally {
+            sample.stop(succeeded ? timers.success() : timers.failure());
+        }
+    }
+
+    private Timer serviceTimer(String operation, String outcome) {
+        return Timer.builder("auth.service")
+                .description("Authentication service operations")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
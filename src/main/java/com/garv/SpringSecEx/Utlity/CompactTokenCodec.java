@@ -0,0 +1,228 @@
+package com.garv.SpringSecEx.Utlity;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.SignatureException;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.interfaces.EdECKey;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Compact binary access token, an alternative to the JWT built by {@link JwtUtil} for
+ * clients where header size matters. The claims have a fixed layout instead of JSON:
+ * <pre>
+ *   version(1) type(1) flags(1) jti(16) iat(4) exp(4) [ver(4) rm(8)] kidLen(1) kid subLen(1) sub
+ *   mac: HMAC-SHA256 (32) with an HMAC key, Ed25519 (64) with an EdDSA key
+ * </pre>
+ * Times are unsigned epoch seconds; ver and rm are present when flags bit 0 is set. The
+ * whole thing is base64url without padding, about a third of the size of the equivalent
+ * JWT, and contains no '.', which is how {@link JwtUtil#verify} tells the formats apart.
+ * <p>
+ * Keys come from the same {@link JwtKeyRing} as JWTs, looked up by kid. Failures throw
+ * the jjwt exceptions JwtFilter already classifies.
+ */
+public final class CompactTokenCodec {
+
+    private static final byte VERSION = 1;
+    private static final byte TYPE_ACCESS = 1;
+    private static final byte TYPE_REFRESH = 2;
+    private static final byte FLAG_EMBEDDED_CLAIMS = 1;
+    private static final int HMAC_LENGTH = 32;
+    private static final int ED25519_LENGTH = 64;
+    private static final int FIXED_HEADER_LENGTH = 3 + 16 + 4 + 4;
+    private static final int EMBEDDED_CLAIMS_LENGTH = 4 + 8;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    // Mac.getInstance does a provider lookup; one instance per thread avoids it per token
+    private static final ThreadLocal<Mac> HMAC = ThreadLocal.withInitial(() -> {
+        try {
+            return Mac.getInstance("HmacSHA256");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    });
+
+    private final JwtKeyRing keyRing;
+
+    public CompactTokenCodec(JwtKeyRing keyRing) {
+        this.keyRing = keyRing;
+    }
+
+    /**
+     * @return true if the ring's keys can sign compact tokens (HMAC or EdDSA)
+     */
+    public static boolean supports(JwtKeyRing keyRing) {
+        Key key = keyRing.signingKey().key();
+        return key instanceof SecretKey || key instanceof EdECKey;
+    }
+
+    /**
+     * @param roleMask role mask to embed, or null to leave out the embedded claims
+     * @param tokenVersion token version to embed; ignored when roleMask is null
+     */
+    public String encode(String type, UUID id, String subject, Instant issuedAt, Instant expiresAt,
+                         Long roleMask, int tokenVersion) {
+        JwtKeyRing.SigningKey signingKey = keyRing.signingKey();
+        byte[] kid = signingKey.kid().getBytes(StandardCharsets.UTF_8);
+        byte[] sub = subject.getBytes(StandardCharsets.UTF_8);
+        if (kid.length > 255 || sub.length > 255) {
+            throw new IllegalArgumentException("kid and subject are limited to 255 bytes");
+        }
+        boolean embedded = roleMask != null;
+        int claimsLength = FIXED_HEADER_LENGTH + (embedded ? EMBEDDED_CLAIMS_LENGTH : 0)
+                + 1 + kid.length + 1 + sub.length;
+        int macLength = signingKey.key() instanceof SecretKey ? HMAC_LENGTH : ED25519_LENGTH;
+
+        ByteBuffer buffer = ByteBuffer.allocate(claimsLength + macLength);
+        buffer.put(VERSION)
+                .put(VerifiedToken.REFRESH.equals(type) ? TYPE_REFRESH : TYPE_ACCESS)
+                .put(embedded ? FLAG_EMBEDDED_CLAIMS : 0)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .putInt((int) issuedAt.getEpochSecond())
+                .putInt((int) expiresAt.getEpochSecond());
+        if (embedded) {
+            buffer.putInt(tokenVersion).putLong(roleMask);
+        }
+        buffer.put((byte) kid.length).put(kid)
+                .put((byte) sub.length).put(sub);
+
+        byte[] token = buffer.array();
+        sign(signingKey.key(), token, claimsLength);
+        return ENCODER.encodeToString(token);
+    }
+
+    /**
+     * Check the MAC and expiry of a compact token and return its claims.
+     */
+    public VerifiedToken decode(String token) {
+        byte[] bytes;
+        try {
+            bytes = DECODER.decode(token);
+        } catch (IllegalArgumentException e) {
+            throw new MalformedJwtException("Compact token is not base64url");
+        }
+        if (bytes.length < FIXED_HEADER_LENGTH + 2) {
+            throw new MalformedJwtException("Compact token too short");
+        }
+        if (bytes[0] != VERSION) {
+            throw new UnsupportedJwtException("Unsupported compact token version " + bytes[0]);
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try {
+            buffer.position(1);
+            byte type = buffer.get();
+            boolean embedded = (buffer.get() & FLAG_EMBEDDED_CLAIMS) != 0;
+            long idHigh = buffer.getLong();
+            long idLow = buffer.getLong();
+            long issuedAt = Integer.toUnsignedLong(buffer.getInt());
+            long expiresAt = Integer.toUnsignedLong(buffer.getInt());
+            Integer tokenVersion = null;
+            Long roleMask = null;
+            if (embedded) {
+                tokenVersion = buffer.getInt();
+                roleMask = buffer.getLong();
+            }
+            String kid = readString(buffer);
+            String subject = readString(buffer);
+            int claimsLength = buffer.position();
+
+            verifyMac(keyRing.verificationKey(kid), bytes, claimsLength);
+
+            if (expiresAt <= Instant.now().getEpochSecond()) {
+                throw new ExpiredJwtException(null, null, "Compact token expired");
+            }
+            return new VerifiedToken(
+                    new UUID(idHigh, idLow).toString(),
+                    subject,
+                    type == TYPE_REFRESH ? VerifiedToken.REFRESH : VerifiedToken.ACCESS,
+                    Instant.ofEpochSecond(issuedAt),
+                    Instant.ofEpochSecond(expiresAt),
+                    roleMask,
+                    tokenVersion
+            );
+        } catch (BufferUnderflowException e) {
+            throw new MalformedJwtException("Compact token truncated");
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = Byte.toUnsignedInt(buffer.get());
+        if (length > buffer.remaining()) {
+            throw new MalformedJwtException("Compact token truncated");
+        }
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private static void sign(Key key, byte[] token, int claimsLength) {
+        try {
+            if (key instanceof SecretKey secretKey) {
+                Mac mac = HMAC.get();
+                mac.init(secretKey);
+                mac.update(token, 0, claimsLength);
+                mac.doFinal(token, claimsLength);
+            } else {
+                Signature signature = Signature.getInstance("Ed25519");
+                signature.initSign((PrivateKey) key);
+                signature.update(token, 0, claimsLength);
+                signature.sign(token, claimsLength, ED25519_LENGTH);
+            }
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign compact token", e);
+        }
+    }
+
+    private static void verifyMac(Key key, byte[] token, int claimsLength) {
+        if (key == null) {
+            throw new SignatureException("Unknown compact token key");
+        }
+        int macLength = token.length - claimsLength;
+        try {
+            if (key instanceof SecretKey secretKey && macLength == HMAC_LENGTH) {
+                Mac mac = HMAC.get();
+                mac.init(secretKey);
+                mac.update(token, 0, claimsLength);
+                if (!constantTimeEquals(mac.doFinal(), token, claimsLength)) {
+                    throw new SignatureException("Compact token MAC does not match");
+                }
+            } else if (key instanceof EdECKey && key instanceof PublicKey publicKey && macLength == ED25519_LENGTH) {
+                Signature signature = Signature.getInstance("Ed25519");
+                signature.initVerify(publicKey);
+                signature.update(token, 0, claimsLength);
+                if (!signature.verify(token, claimsLength, ED25519_LENGTH)) {
+                    throw new SignatureException("Compact token signature does not match");
+                }
+            } else {
+                throw new SignatureException("Compact token MAC does not fit its key");
+            }
+        } catch (GeneralSecurityException e) {
+            throw new SignatureException("Cannot verify compact token", e);
+        }
+    }
+
+    private static boolean constantTimeEquals(byte[] expected, byte[] token, int offset) {
+        int difference = 0;
+        for (int i = 0; i < expected.length; i++) {
+            difference |= expected[i] ^ token[offset + i];
+        }
+        return difference == 0;
+    }
+}
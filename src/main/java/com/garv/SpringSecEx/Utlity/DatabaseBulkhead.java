@@ -0,0 +1,67 @@
+package com.garv.SpringSecEx.Utlity;
+
+import com.garv.SpringSecEx.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Caps how many request threads run a blocking UserRepository call at once.
+ * <p>
+ * With platform threads Tomcat's pool already bounds this. With virtual threads every
+ * request gets its own thread, so thousands can pile into Hibernate and wait on the
+ * Hikari pool until its connection timeout. Waiting on a {@link Semaphore} parks a
+ * virtual thread without pinning its carrier, and callers that can't get a permit in
+ * time fail fast with {@link ServiceBusyException} (503) instead.
+ * Disabled by default; application-virtual.properties turns it on.
+ */
+@Component
+public class DatabaseBulkhead {
+
+    private final Semaphore permits;
+    private final long timeoutMillis;
+    private final Counter rejected;
+
+    public DatabaseBulkhead(@Value("${auth.db-bulkhead.enabled:false}") boolean enabled,
+                            @Value("${auth.db-bulkhead.max-concurrent:10}") int maxConcurrent,
+                            @Value("${auth.db-bulkhead.timeout:2s}") Duration timeout,
+                            MeterRegistry registry) {
+        this.permits = enabled ? new Semaphore(maxConcurrent, true) : null;
+        this.timeoutMillis = timeout.toMillis();
+        this.rejected = Counter.builder("auth.db.bulkhead.rejected")
+                .description("Database calls rejected because no bulkhead permit was free in time")
+                .register(registry);
+        if (permits != null) {
+            Gauge.builder("auth.db.bulkhead.available", permits, Semaphore::availablePermits)
+                    .description("Free database bulkhead permits")
+                    .register(registry);
+        }
+    }
+
+    public <T> T call(Supplier<T> work) {
+        if (permits == null) {
+            return work.get();
+        }
+        try {
+            if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                rejected.increment();
+                throw new ServiceBusyException("Database is busy, try again shortly");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Interrupted while waiting for the database");
+        }
+        try {
+            return work.get();
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.garv.SpringSecEx.Utlity;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.garv.SpringSecEx.dto.ApiResponse;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Error envelopes ({@link ApiResponse#error}) serialized once and reused as bytes. Most
+ * rejections (bad credentials, bad tokens, throttled logins) carry one of a handful of
+ * fixed messages, so under attack traffic they are written without touching Jackson.
+ * <p>
+ * Only pass messages the application chose, not ones built from request input: the
+ * cache is capped, and anything past the cap is serialized on every call.
+ */
+@Component
+public class ErrorBodies {
+
+    private static final int MAX_CACHED = 256;
+
+    private record Key(int status, String message) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final ConcurrentMap<Key, byte[]> bodies = new ConcurrentHashMap<>();
+
+    public ErrorBodies(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @return the JSON body; shared, so callers must not modify it
+     */
+    public byte[] body(HttpStatus status, String message) {
+        Key key = new Key(status.value(), message);
+        byte[] body = bodies.get(key);
+        if (body == null) {
+            body = encode(status, message);
+            if (bodies.size() < MAX_CACHED) {
+                bodies.putIfAbsent(key, body);
+            }
+        }
+        return body;
+    }
+
+    public ResponseEntity<byte[]> response(HttpStatus status, String message) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body(status, message));
+    }
+
+    public void write(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        byte[] body = body(status, message);
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private byte[] encode(HttpStatus status, String message) {
+        try {
+            return objectMapper.writeValueAsBytes(ApiResponse.error(message, status.value()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize error response", e);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.garv.SpringSecEx.Utlity;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Records when a new instance served its first request, and how long that request took
+ * (cold JIT, first connections, lazily built caches). Spring Boot's application.started.time
+ * and application.ready.time stop at context refresh; these gauges cover the rest:
+ * <ul>
+ *     <li>auth.startup.first-request.since-start - JVM start to first response</li>
+ *     <li>auth.startup.first-request.latency - duration of that first request</li>
+ * </ul>
+ * Actuator requests (health probes) do not count. Afterwards the filter costs a volatile read.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class FirstRequestTimer extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(FirstRequestTimer.class);
+
+    private final long jvmStartMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private final AtomicBoolean claimed = new AtomicBoolean();
+    private volatile boolean recorded;
+    private volatile double sinceStartMillis = Double.NaN;
+    private volatile double latencyMillis = Double.NaN;
+
+    public FirstRequestTimer(MeterRegistry registry) {
+        TimeGauge.builder("auth.startup.first-request.since-start", this, TimeUnit.MILLISECONDS,
+                        timer -> timer.sinceStartMillis)
+                .description("Time from JVM start until the first request completed")
+                .register(registry);
+        TimeGauge.builder("auth.startup.first-request.latency", this, TimeUnit.MILLISECONDS,
+                        timer -> timer.latencyMillis)
+                .description("Duration of the first request served")
+                .register(registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return recorded || request.getRequestURI().contains("/actuator/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            // Of concurrent first requests, the first to finish counts
+            if (claimed.compareAndSet(false, true)) {
+                latencyMillis = (System.nanoTime() - start) / 1_000_000.0;
+                sinceStartMillis = System.currentTimeMillis() - jvmStartMillis;
+                recorded = true;
+                log.info("First request ({} {}) completed {} ms after JVM start, in {} ms",
+                        request.getMethod(), request.getRequestURI(),
+                        Math.round(sinceStartMillis), Math.round(latencyMillis));
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.garv.SpringSecEx.Utlity;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.SignatureException;
+
+/**
+ * Why JwtFilter rejected a bearer token; used as the reason tag on auth.token.invalid.
+ */
+public enum InvalidTokenReason {
+    EXPIRED,
+    BAD_SIGNATURE,
+    MALFORMED,
+    UNSUPPORTED,
+    WRONG_TYPE,
+    REVOKED,
+    STALE_VERSION,
+    UNKNOWN_USER,     // the subject no longer exists
+    ACCOUNT_DISABLED, // the subject is disabled
+    INVALID;
+
+    private final String tag = name().toLowerCase();
+
+    public String tag() {
+        return tag;
+    }
+
+    public static InvalidTokenReason of(Exception e) {
+        if (e instanceof ExpiredJwtException) {
+            return EXPIRED;
+        }
+        if (e instanceof SignatureException) {
+            return BAD_SIGNATURE;
+        }
+        if (e instanceof MalformedJwtException || e instanceof IllegalArgumentException) {
+            return MALFORMED;
+        }
+        if (e instanceof UnsupportedJwtException) {
+            return UNSUPPORTED;
+        }
+        return INVALID;
+    }
+}
@@ -1,16 +1,19 @@
 package com.garv.SpringSecEx.Utlity;
 
+import com.garv.SpringSecEx.Services.AccessTokenPolicy;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -20,16 +23,29 @@ import java.io.IOException;
 @Component
 public class JwtFilter extends OncePerRequestFilter {
 
-    @Autowired
-    private ApplicationContext context;
+    // Bad tokens are attacker-controlled, so their logging is rate limited
+    private static final SampledLogger invalidTokenLog =
+            new SampledLogger(LoggerFactory.getLogger(JwtFilter.class), 60);
 
     @Autowired
-    private UserDetailsService userDetailsService;
-
-    private final JwtUtil jwtUtil;
+    private ApplicationContext context;
 
-    public JwtFilter(JwtUtil jwtUtil) {
-        this.jwtUtil = jwtUtil;
+    // Request attribute holding the VerifiedToken of an authenticated request
+    public static final String VERIFIED_TOKEN_ATTRIBUTE = JwtFilter.class.getName() + ".VERIFIED_TOKEN";
+
+    private final VerifiedTokenCache tokenCache;
+    private final AccessTokenPolicy accessTokenPolicy;
+    private final AuthMetrics authMetrics;
+    private final boolean lazy;
+
+    public JwtFilter(VerifiedTokenCache tokenCache,
+                     AccessTokenPolicy accessTokenPolicy,
+                     AuthMetrics authMetrics,
+                     @Value("${jwt.lazy-authentication.enabled:false}") boolean lazy) {
+        this.tokenCache = tokenCache;
+        this.accessTokenPolicy = accessTokenPolicy;
+        this.authMetrics = authMetrics;
+        this.lazy = lazy;
     }
 
     @Override
@@ -39,38 +55,77 @@ public class JwtFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
 
         String authHeader = request.getHeader("Authorization");
-        String jwtToken = null;
-        String username = null;
+        VerifiedToken verifiedToken = null;
 
-        // Extract JWT token
+        long phaseStart = System.nanoTime();
+
+        // Extract and verify JWT token (cached per token until it expires)
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            jwtToken = authHeader.substring(7);
+            String jwtToken = authHeader.substring(7);
             try {
-                username = jwtUtil.extractUsername(jwtToken);
+                VerifiedToken candidate = tokenCache.verify(jwtToken);
+                phaseStart = authMetrics.recordPhase(AuthMetrics.FilterPhase.VERIFY, phaseStart);
+
+                InvalidTokenReason rejected = accessTokenPolicy.checkClaims(candidate);
+                if (rejected != null) {
+                    authMetrics.invalidToken(rejected);
+                } else {
+                    verifiedToken = candidate;
+                }
+                phaseStart = authMetrics.recordPhase(AuthMetrics.FilterPhase.REVOCATION_CHECK, phaseStart);
             } catch (Exception e) {
-                System.out.println("Invalid Token: " + e.getMessage());
+                InvalidTokenReason reason = InvalidTokenReason.of(e);
+                authMetrics.invalidToken(reason);
+                invalidTokenLog.debug("Invalid token ({}): {}", reason.tag(), e.getMessage());
             }
         }
 
-        // Validate JWT token and set authentication
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        // Set authentication from the verified claims
+        if (verifiedToken != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-            if (jwtUtil.validateToken(jwtToken, userDetails)) {
+            Authentication authentication = authenticate(verifiedToken, request);
+            phaseStart = authMetrics.recordPhase(AuthMetrics.FilterPhase.USER_LOAD, phaseStart);
 
-                UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(
-                                userDetails,
-                                null,
-                                userDetails.getAuthorities()
-                        );
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+            if (authentication != null) {
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+                request.setAttribute(VERIFIED_TOKEN_ATTRIBUTE, verifiedToken);
+                authMetrics.recordPhase(AuthMetrics.FilterPhase.CONTEXT_SETUP, phaseStart);
             }
         }
 
         // Continue filter chain
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Whether the token may authenticate is decided by {@link AccessTokenPolicy}, which
+     * introspection uses as well. In lazy mode the stateless principal is wrapped so the
+     * entity load and request details are deferred until first needed, see
+     * {@link LazyJwtAuthentication}.
+     * @return the authentication, or null if the token must not authenticate
+     */
+    private Authentication authenticate(VerifiedToken verifiedToken, HttpServletRequest request) {
+        AccessTokenPolicy.Decision decision = accessTokenPolicy.checkUser(verifiedToken);
+        if (!decision.isAccepted()) {
+            authMetrics.invalidToken(decision.reason());
+            return null;
+        }
+
+        UserDetails principal = decision.principal();
+        if (lazy && accessTokenPolicy.isStateless() && verifiedToken.hasEmbeddedClaims()) {
+            return new LazyJwtAuthentication(verifiedToken, () -> principal, principal.getAuthorities(), request);
+        }
+        return authenticated(principal, request);
+    }
+
+    private static Authentication authenticated(UserDetails userDetails, HttpServletRequest request) {
+        UsernamePasswordAuthenticationToken authToken =
+                new UsernamePasswordAuthenticationToken(
+                        userDetails,
+                        null,
+                        userDetails.getAuthorities()
+                );
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        return authToken;
+    }
 }
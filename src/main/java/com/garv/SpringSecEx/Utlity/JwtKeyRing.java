@@ -0,0 +1,359 @@
+package com.garv.SpringSecEx.Utlity;
+
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.cert.Certificate;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keys used by {@link JwtUtil}. Every token is signed with the active key and carries its
+ * {@code kid}; verification looks the key up by {@code kid}, so rotated-out keys keep
+ * verifying the tokens they signed until those tokens have expired.
+ * <p>
+ * jwt.signing.algorithm selects the scheme:
+ * <ul>
+ *     <li>HMAC (default) - the shared jwt.secret, as before; nothing is published in the JWKS</li>
+ *     <li>RS256, ES256, EdDSA - asymmetric keys whose public halves are published at
+ *     /.well-known/jwks.json so resource servers verify tokens locally</li>
+ * </ul>
+ * Asymmetric keys come from a PKCS12 keystore (jwt.signing.keystore, one alias per key,
+ * jwt.signing.active-alias signs) that is re-read periodically, or, without a keystore,
+ * are generated in memory and rotated every jwt.signing.rotation-interval. Generated keys
+ * are per node and lost on restart, so multi-node deployments need the keystore.
+ * The next generated key is published one rotation ahead of use, so cached JWKS documents
+ * already contain it when tokens signed with it appear.
+ */
+@Component
+public class JwtKeyRing {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyRing.class);
+    private static final String HMAC = "HMAC";
+    private static final String LEGACY_HMAC_KID = "hmac";
+
+    public record SigningKey(String kid, Key key) {
+    }
+
+    private record RingKey(String kid, Key signingKey, Key verificationKey, Instant createdAt) {
+    }
+
+    private final String algorithm;
+    private final SecretKey legacyHmacKey;
+    private final Path keystorePath;
+    private final char[] keystorePassword;
+    private final String activeAlias;
+    private final Duration rotationInterval;
+    private final Duration retention;
+
+    // kid -> key usable for verification, and when it may be dropped (null = still in use)
+    private final Map<String, RingKey> verificationKeys = new ConcurrentHashMap<>();
+    private final Map<String, Instant> retiredUntil = new ConcurrentHashMap<>();
+    private volatile RingKey active;
+    private volatile RingKey next;
+    private volatile Instant keystoreLoadedAt = Instant.EPOCH;
+    // A lock rather than synchronized: keystore reads block on I/O, which would pin a virtual thread
+    private final ReentrantLock updateLock = new ReentrantLock();
+
+    @Autowired
+    public JwtKeyRing(@Value("${jwt.secret}") String secret,
+                      @Value("${jwt.signing.algorithm:HMAC}") String algorithm,
+                      @Value("${jwt.signing.keystore:}") String keystorePath,
+                      @Value("${jwt.signing.keystore-password:}") String keystorePassword,
+                      @Value("${jwt.signing.active-alias:}") String activeAlias,
+                      @Value("${jwt.signing.rotation-interval:24h}") Duration rotationInterval,
+                      @Value("${jwt.signing.retention:8d}") Duration retention,
+                      @Value("${jwt.signing.accept-legacy-hmac:false}") boolean acceptLegacyHmac) {
+        this.algorithm = algorithm.toUpperCase().equals("EDDSA") ? "EdDSA" : algorithm.toUpperCase();
+        boolean hmac = HMAC.equals(this.algorithm);
+        this.legacyHmacKey = hmac || acceptLegacyHmac
+                ? Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8))
+                : null;
+        this.keystorePath = keystorePath.isBlank() ? null : Path.of(keystorePath);
+        this.keystorePassword = keystorePassword.toCharArray();
+        this.activeAlias = activeAlias;
+        this.rotationInterval = rotationInterval;
+        this.retention = retention;
+
+        if (hmac) {
+            active = new RingKey(LEGACY_HMAC_KID, legacyHmacKey, legacyHmacKey, Instant.now());
+            verificationKeys.put(LEGACY_HMAC_KID, active);
+        } else if (this.keystorePath != null) {
+            loadKeystore();
+        } else {
+            log.warn("No jwt.signing.keystore configured: {} keys are generated in memory and are not shared "
+                    + "between nodes or restarts", this.algorithm);
+            active = generate();
+            next = generate();
+            verificationKeys.put(active.kid(), active);
+            verificationKeys.put(next.kid(), next);
+        }
+    }
+
+    /**
+     * HMAC-only ring over a shared secret, for tests and tools that build JwtUtil directly.
+     */
+    public static JwtKeyRing hmac(String secret) {
+        return new JwtKeyRing(secret, HMAC, "", "", "", Duration.ofDays(1), Duration.ofDays(8), true);
+    }
+
+    /**
+     * Ring of in-memory asymmetric keys, for tests and tools.
+     */
+    public static JwtKeyRing generated(String algorithm) {
+        return new JwtKeyRing("unused-legacy-secret-unused-legacy-secret", algorithm, "", "", "",
+                Duration.ofDays(1), Duration.ofDays(8), false);
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * @return the active key and its kid, read together so a concurrent rotation cannot mix them
+     */
+    public SigningKey signingKey() {
+        RingKey current = active;
+        return new SigningKey(current.kid(), current.signingKey());
+    }
+
+    /**
+     * @param kid key id from the token header; null for tokens issued before kids were added,
+     *            which only the HMAC scheme still accepts
+     * @return the verification key, or null if the kid is unknown or retired
+     */
+    public Key verificationKey(String kid) {
+        if (kid == null) {
+            return HMAC.equals(algorithm) ? legacyHmacKey : null;
+        }
+        if (LEGACY_HMAC_KID.equals(kid)) {
+            return legacyHmacKey;
+        }
+        RingKey key = verificationKeys.get(kid);
+        return key != null ? key.verificationKey() : null;
+    }
+
+    /**
+     * @return public JWKs of every key that may still appear on valid tokens, plus the next key
+     */
+    public List<Map<String, Object>> publicJwks() {
+        List<Map<String, Object>> jwks = new ArrayList<>();
+        for (RingKey key : verificationKeys.values()) {
+            if (key.verificationKey() instanceof PublicKey publicKey) {
+                jwks.add(toJwk(key.kid(), publicKey));
+            }
+        }
+        return jwks;
+    }
+
+    /**
+     * Rotate generated keys once the interval has passed, re-read the keystore when it
+     * changed, and drop keys whose retention period is over.
+     */
+    @Scheduled(fixedDelayString = "${jwt.signing.rotation-check-interval-ms:60000}")
+    public void maintain() {
+        Instant now = Instant.now();
+        if (HMAC.equals(algorithm)) {
+            return;
+        }
+        if (keystorePath != null) {
+            reloadKeystoreIfChanged();
+        } else if (active.createdAt().plus(rotationInterval).isBefore(now)) {
+            rotate();
+        }
+        retiredUntil.entrySet().removeIf(entry -> {
+            if (entry.getValue().isBefore(now)) {
+                verificationKeys.remove(entry.getKey());
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Promote the pre-published next key and generate a new next key.
+     */
+    public void rotate() {
+        updateLock.lock();
+        try {
+            doRotate();
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    private void doRotate() {
+        RingKey previous = active;
+        RingKey promoted = next != null ? next : generate();
+        RingKey upcoming = generate();
+        verificationKeys.put(promoted.kid(), new RingKey(promoted.kid(), promoted.signingKey(),
+                promoted.verificationKey(), Instant.now()));
+        verificationKeys.put(upcoming.kid(), upcoming);
+        active = verificationKeys.get(promoted.kid());
+        next = upcoming;
+        retiredUntil.put(previous.kid(), Instant.now().plus(retention));
+        log.info("Rotated JWT signing key {} -> {}", previous.kid(), active.kid());
+    }
+
+    private RingKey generate() {
+        try {
+            KeyPairGenerator generator;
+            switch (algorithm) {
+                case "RS256" -> {
+                    generator = KeyPairGenerator.getInstance("RSA");
+                    generator.initialize(2048);
+                }
+                case "ES256" -> {
+                    generator = KeyPairGenerator.getInstance("EC");
+                    generator.initialize(new ECGenParameterSpec("secp256r1"));
+                }
+                case "EdDSA" -> generator = KeyPairGenerator.getInstance("Ed25519");
+                default -> throw new IllegalArgumentException("Unsupported jwt.signing.algorithm: " + algorithm);
+            }
+            KeyPair pair = generator.generateKeyPair();
+            byte[] kid = new byte[8];
+            new SecureRandom().nextBytes(kid);
+            return new RingKey(HexFormat.of().formatHex(kid), pair.getPrivate(), pair.getPublic(), Instant.now());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot generate " + algorithm + " key", e);
+        }
+    }
+
+    private void reloadKeystoreIfChanged() {
+        try {
+            if (Files.getLastModifiedTime(keystorePath).toInstant().isAfter(keystoreLoadedAt)) {
+                loadKeystore();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Keeping current JWT keys, reloading {} failed: {}", keystorePath, e.getMessage());
+        }
+    }
+
+    private void loadKeystore() {
+        updateLock.lock();
+        try {
+            doLoadKeystore();
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    private void doLoadKeystore() {
+        Instant loadedAt = Instant.now();
+        try (InputStream input = Files.newInputStream(keystorePath)) {
+            KeyStore keyStore = KeyStore.getInstance("PKCS12");
+            keyStore.load(input, keystorePassword);
+
+            Map<String, RingKey> loaded = new LinkedHashMap<>();
+            for (String alias : Collections.list(keyStore.aliases())) {
+                Certificate certificate = keyStore.getCertificate(alias);
+                if (certificate == null) {
+                    continue;
+                }
+                Key privateKey = alias.equals(activeAlias) ? keyStore.getKey(alias, keystorePassword) : null;
+                loaded.put(alias, new RingKey(alias, privateKey, certificate.getPublicKey(), loadedAt));
+            }
+
+            RingKey signing = loaded.get(activeAlias);
+            if (signing == null || !(signing.signingKey() instanceof PrivateKey)) {
+                throw new IllegalStateException("jwt.signing.active-alias '" + activeAlias
+                        + "' has no private key in " + keystorePath);
+            }
+
+            // Keys removed from the keystore stay verifiable for the retention period
+            for (String kid : verificationKeys.keySet()) {
+                if (!loaded.containsKey(kid)) {
+                    retiredUntil.putIfAbsent(kid, loadedAt.plus(retention));
+                }
+            }
+            verificationKeys.putAll(loaded);
+            loaded.keySet().forEach(retiredUntil::remove);
+            active = signing;
+            keystoreLoadedAt = loadedAt;
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot load JWT keystore " + keystorePath, e);
+        }
+    }
+
+    private Map<String, Object> toJwk(String kid, PublicKey key) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        if (key instanceof RSAPublicKey rsa) {
+            jwk.put("kty", "RSA");
+            // jjwt signs with the RSA variant matching the key size
+            int bits = rsa.getModulus().bitLength();
+            jwk.put("alg", bits >= 4096 ? "RS512" : bits >= 3072 ? "RS384" : "RS256");
+            jwk.put("n", base64Url(unsigned(rsa.getModulus())));
+            jwk.put("e", base64Url(unsigned(rsa.getPublicExponent())));
+        } else if (key instanceof ECPublicKey ec) {
+            jwk.put("kty", "EC");
+            jwk.put("alg", "ES256");
+            jwk.put("crv", "P-256");
+            jwk.put("x", base64Url(fixedLength(ec.getW().getAffineX(), 32)));
+            jwk.put("y", base64Url(fixedLength(ec.getW().getAffineY(), 32)));
+        } else if ("EdDSA".equals(key.getAlgorithm()) || "Ed25519".equals(key.getAlgorithm())) {
+            // X.509 SubjectPublicKeyInfo for Ed25519 is a fixed 12-byte prefix and the 32-byte key
+            byte[] encoded = key.getEncoded();
+            jwk.put("kty", "OKP");
+            jwk.put("alg", "EdDSA");
+            jwk.put("crv", "Ed25519");
+            jwk.put("x", base64Url(Arrays.copyOfRange(encoded, encoded.length - 32, encoded.length)));
+        } else {
+            throw new IllegalStateException("Unsupported public key type: " + key.getAlgorithm());
+        }
+        jwk.put("use", "sig");
+        jwk.put("kid", kid);
+        return jwk;
+    }
+
+    private static byte[] unsigned(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        return bytes.length > 1 && bytes[0] == 0 ? Arrays.copyOfRange(bytes, 1, bytes.length) : bytes;
+    }
+
+    private static byte[] fixedLength(BigInteger value, int length) {
+        byte[] bytes = unsigned(value);
+        if (bytes.length == length) {
+            return bytes;
+        }
+        byte[] padded = new byte[length];
+        System.arraycopy(bytes, 0, padded, length - bytes.length, bytes.length);
+        return padded;
+    }
+
+    private static String base64Url(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
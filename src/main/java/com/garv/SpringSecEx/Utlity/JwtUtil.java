@@ -1,101 +1,235 @@
 package com.garv.SpringSecEx.Utlity;
 
+import com.garv.SpringSecEx.Entity.UserPrincipal;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.MalformedJwtException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.time.Instant;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
 
-    private final SecretKey secretKey;
+    private static final Logger log = LoggerFactory.getLogger(JwtUtil.class);
+
+    private final JwtKeyRing keyRing;
+    private final JwtParser jwtParser; // immutable and thread-safe, so built once
+    private final CompactTokenCodec compactCodec;
+    private final boolean issueCompact;
     private final long EXPIRATION_TIME = 1000 * 60 * 60; // 1 hour
     private final long REFRESH_TOKEN_EXPIRATION_TIME = 7 * 24 * 60 * 60 * 1000L; // 7 days
 
-    // Inject secret from application.properties or environment variable
-    public JwtUtil(@Value("${jwt.secret}") String secret) {
-        this.secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    // Claims embedded for stateless authentication
+    // Role bits rather than authority names: a few bytes per token however many permissions
+    public static final String ROLE_MASK_CLAIM = "rm";
+    public static final String TOKEN_VERSION_CLAIM = "ver";
+
+    public JwtUtil(JwtKeyRing keyRing) {
+        this(keyRing, "jwt");
+    }
+
+    /**
+     * @param format access token format to issue: jwt, or compact (see CompactTokenCodec).
+     *               Both formats are always accepted, so it can be switched without a logout.
+     */
+    @Autowired
+    public JwtUtil(JwtKeyRing keyRing, @Value("${jwt.format:jwt}") String format) {
+        this.keyRing = keyRing;
+        this.compactCodec = new CompactTokenCodec(keyRing);
+        boolean compact = "compact".equalsIgnoreCase(format);
+        if (compact && !CompactTokenCodec.supports(keyRing)) {
+            log.warn("jwt.format=compact needs HMAC or EdDSA keys, issuing JWTs with {}", keyRing.getAlgorithm());
+            compact = false;
+        }
+        this.issueCompact = compact;
+        // Resolve the verification key per token from its kid, so rotation needs no new parser
+        this.jwtParser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        return keyRing.verificationKey(header.getKeyId());
+                    }
+                })
+                .build();
+    }
+
+    // HMAC-only instance over a shared secret
+    public JwtUtil(String secret) {
+        this(JwtKeyRing.hmac(secret));
     }
 
     public String generateToken(String username) {
-        Map<String, Object> claims = new HashMap<>();
-        claims.put("type", "access");
+        if (issueCompact) {
+            return compactAccessToken(username, null, 0);
+        }
 
-        return Jwts.builder()
-                .claims(claims)
+        return signed(Jwts.builder())
+                .claim("type", VerifiedToken.ACCESS)
+                .id(UUID.randomUUID().toString()) // jti, the key for revocation
                 .subject(username)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-                .signWith(secretKey) // Use deprecated-free method
                 .compact();
     }
 
-    public String generateRefreshToken(String username) {
-        Map<String, Object> claims = new HashMap<>();
-        claims.put("type", "refresh");
+    /**
+     * Generate an access token that also carries the user's role mask and token
+     * version, so JwtFilter can authenticate it without loading the user.
+     * @param userDetails Authenticated user
+     * @return Signed access token
+     */
+    public String generateToken(UserDetails userDetails) {
+        UserPrincipal principal = userDetails instanceof UserPrincipal p ? p : null;
+        if (issueCompact) {
+            return principal != null
+                    ? compactAccessToken(principal.getUsername(), principal.getRoleMask(),
+                            principal.getTokenVersion())
+                    : compactAccessToken(userDetails.getUsername(), null, 0);
+        }
 
-        return Jwts.builder()
-                .claims(claims)
+        JwtBuilder builder = signed(Jwts.builder()).claim("type", VerifiedToken.ACCESS);
+        if (principal != null) {
+            builder.claim(ROLE_MASK_CLAIM, principal.getRoleMask())
+                    .claim(TOKEN_VERSION_CLAIM, principal.getTokenVersion());
+        }
+
+        return builder
+                .id(UUID.randomUUID().toString()) // jti, the key for revocation
+                .subject(userDetails.getUsername())
+                .issuedAt(new Date(System.currentTimeMillis()))
+                .expiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
+                .compact();
+    }
+
+    public String generateRefreshToken(String username) {
+        return signed(Jwts.builder())
+                .claim("type", VerifiedToken.REFRESH)
+                .id(UUID.randomUUID().toString()) // jti, the key for revocation
                 .subject(username)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + REFRESH_TOKEN_EXPIRATION_TIME))
-                .signWith(secretKey)
                 .compact();
     }
 
+    // Refresh tokens stay JWTs: they are sent once per hour, not on every request
+    private String compactAccessToken(String username, Long roleMask, int tokenVersion) {
+        Instant now = Instant.now();
+        return compactCodec.encode(VerifiedToken.ACCESS, UUID.randomUUID(), username,
+                now, now.plusMillis(EXPIRATION_TIME), roleMask, tokenVersion);
+    }
+
+    // Sign with the active key and name it in the kid header; jjwt picks the algorithm from the key
+    private JwtBuilder signed(JwtBuilder builder) {
+        JwtKeyRing.SigningKey signingKey = keyRing.signingKey();
+        return builder
+                .header().keyId(signingKey.kid()).and()
+                .signWith(signingKey.key());
+    }
+
+    public long getRefreshTokenExpirationMs() {
+        return REFRESH_TOKEN_EXPIRATION_TIME;
+    }
+
+    /**
+     * Verify signature and expiry of a token in a single parse.
+     * @param token Compact JWT, or a compact binary token (no '.')
+     * @return VerifiedToken with the claims the application uses
+     * @throws JwtException if the token is malformed, badly signed or expired
+     */
+    public VerifiedToken verify(String token) {
+        if (token.indexOf('.') < 0) {
+            return compactCodec.decode(token);
+        }
+        Claims claims = extractAllClaims(token);
+        if (claims.getExpiration() == null) {
+            // Every token issued here expires; one that doesn't could never be revoked or aged out
+            throw new MalformedJwtException("Token has no expiration");
+        }
+        return new VerifiedToken(
+                claims.getId(),
+                claims.getSubject(),
+                claims.get("type", String.class),
+                toInstant(claims.getIssuedAt()),
+                toInstant(claims.getExpiration()),
+                extractRoleMask(claims),
+                claims.get(TOKEN_VERSION_CLAIM, Integer.class)
+        );
+    }
+
+    /**
+     * Verify a token and require it to be an access token.
+     * @return VerifiedToken, or null if the token is invalid or not an access token
+     */
+    public VerifiedToken verifyAccessToken(String token) {
+        try {
+            VerifiedToken verified = verify(token);
+            return verified.isAccessToken() ? verified : null;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Verify a token and require it to be a refresh token.
+     * @return VerifiedToken, or null if the token is invalid or not a refresh token
+     */
+    public VerifiedToken verifyRefreshToken(String token) {
+        try {
+            VerifiedToken verified = verify(token);
+            return verified.isRefreshToken() ? verified : null;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).subject();
     }
 
+    // JWTs only
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
         final Claims claims = extractAllClaims(token);
         return claimsResolver.apply(claims);
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(secretKey) // Updated method
-                .build()
+        return jwtParser
                 .parseSignedClaims(token)
                 .getPayload();
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        try {
-            final String username = extractUsername(token);
-            final String tokenType = extractClaim(token, claims -> claims.get("type", String.class));
-
-            return username.equals(userDetails.getUsername())
-                    && isTokenExpired(token)
-                    && "access".equals(tokenType);
-        } catch (Exception e) {
-            return false;
-        }
+        VerifiedToken verified = verifyAccessToken(token);
+        return verified != null && verified.subject().equals(userDetails.getUsername());
     }
 
     public Boolean validateRefreshToken(String token, String username) {
-        try {
-            final String tokenUsername = extractUsername(token);
-            final String tokenType = extractClaim(token, claims -> claims.get("type", String.class));
-
-            return tokenUsername.equals(username)
-                    && isTokenExpired(token)
-                    && "refresh".equals(tokenType);
-        } catch (Exception e) {
-            return false;
-        }
+        VerifiedToken verified = verifyRefreshToken(token);
+        return verified != null && verified.subject().equals(username);
+    }
+
+    // JSON numbers come back as Integer or Long depending on their size
+    private static Long extractRoleMask(Claims claims) {
+        Object roleMask = claims.get(ROLE_MASK_CLAIM);
+        return roleMask instanceof Number number ? number.longValue() : null;
     }
 
-    private boolean isTokenExpired(String token) {
-        return !extractClaim(token, Claims::getExpiration).before(new Date());
+    private static Instant toInstant(Date date) {
+        return date != null ? date.toInstant() : null;
     }
-}
\ No newline at end of file
+}
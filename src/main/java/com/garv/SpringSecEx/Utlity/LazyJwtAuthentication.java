@@ -0,0 +1,112 @@
+package com.garv.SpringSecEx.Utlity;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * Authentication set by JwtFilter for a verified access token. The name comes from the
+ * token, so endpoints that only need {@code principal.getName()} never load the user;
+ * the principal (and, unless they were known from the token, the authorities) is loaded
+ * the first time getPrincipal or getAuthorities is called, and the web details are only
+ * built if someone reads them.
+ * <p>
+ * A user deleted after the token was issued therefore only fails once something touches
+ * the principal (UsernameNotFoundException), not up front.
+ */
+public class LazyJwtAuthentication implements Authentication {
+
+    private final VerifiedToken token;
+    private final transient Supplier<UserDetails> principalLoader;
+    private final transient HttpServletRequest request;
+    private volatile UserDetails principal;
+    private volatile Collection<? extends GrantedAuthority> authorities;
+    private volatile Object details;
+    private volatile boolean authenticated = true;
+
+    /**
+     * @param authorities authorities known from the token, or null to take them from the loaded principal
+     */
+    public LazyJwtAuthentication(VerifiedToken token,
+                                 Supplier<UserDetails> principalLoader,
+                                 Collection<? extends GrantedAuthority> authorities,
+                                 HttpServletRequest request) {
+        this.token = token;
+        this.principalLoader = principalLoader;
+        this.authorities = authorities;
+        this.request = request;
+    }
+
+    @Override
+    public String getName() {
+        return token.subject();
+    }
+
+    public VerifiedToken getVerifiedToken() {
+        return token;
+    }
+
+    // Concurrent first calls may both load; CachedUserDetailsService makes the second one cheap
+    @Override
+    public UserDetails getPrincipal() {
+        UserDetails loaded = principal;
+        if (loaded == null) {
+            loaded = principalLoader.get();
+            principal = loaded;
+        }
+        return loaded;
+    }
+
+    public boolean isPrincipalLoaded() {
+        return principal != null;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        Collection<? extends GrantedAuthority> known = authorities;
+        if (known == null) {
+            known = getPrincipal().getAuthorities();
+            authorities = known;
+        }
+        return known;
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public Object getDetails() {
+        Object built = details;
+        if (built == null && request != null) {
+            built = new WebAuthenticationDetailsSource().buildDetails(request);
+            details = built;
+        }
+        return built;
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return authenticated;
+    }
+
+    @Override
+    public void setAuthenticated(boolean authenticated) {
+        if (authenticated) {
+            throw new IllegalArgumentException("Cannot mark a token authentication as trusted, create a new one");
+        }
+        this.authenticated = false;
+    }
+
+    // Must not load the principal, unlike the default Authentication toString of most tokens
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[name=" + getName() + ", principalLoaded=" + isPrincipalLoaded() + "]";
+    }
+}
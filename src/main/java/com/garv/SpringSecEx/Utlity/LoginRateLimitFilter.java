@@ -0,0 +1,158 @@
+package com.garv.SpringSecEx.Utlity;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.garv.SpringSecEx.Services.LoginRateLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * Throttles POST /auth/login and /login per client IP and per username before the
+ * request reaches AuthenticationManager, so rejected attempts never cost a password hash.
+ * The JSON body is buffered once to read the username and replayed to the controller.
+ * <p>
+ * The IP is getRemoteAddr(), so behind a load balancer it is the client's only if the
+ * forwarded headers are applied (server.forward-headers-strategy); otherwise every
+ * client shares the balancer's bucket.
+ */
+@Component
+public class LoginRateLimitFilter extends OncePerRequestFilter {
+
+    private static final Set<String> LOGIN_PATHS = Set.of("/auth/login", "/login");
+    private static final int MAX_BODY_BYTES = 8 * 1024;
+
+    private final LoginRateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+    private final ErrorBodies errorBodies;
+
+    public LoginRateLimitFilter(LoginRateLimiter rateLimiter, ObjectMapper objectMapper, ErrorBodies errorBodies) {
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
+        this.errorBodies = errorBodies;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !LOGIN_PATHS.contains(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        byte[] body = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+        if (body.length > MAX_BODY_BYTES) {
+            reject(response, HttpStatus.PAYLOAD_TOO_LARGE, "Request body too large", 0);
+            return;
+        }
+
+        long retryAfter = rateLimiter.tryAcquire(request.getRemoteAddr(), extractUsername(body));
+        if (retryAfter > 0) {
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, "Too many login attempts, please retry later", retryAfter);
+            return;
+        }
+
+        filterChain.doFilter(new CachedBodyRequest(request, body), response);
+    }
+
+    private String extractUsername(byte[] body) {
+        try {
+            JsonNode username = objectMapper.readTree(body).get("username");
+            return username != null && username.isTextual() ? UsernameNormalizer.normalize(username.asText()) : null;
+        } catch (IOException e) {
+            return null; // malformed body: only the IP limit applies, the controller rejects it
+        }
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String message, long retryAfter)
+            throws IOException {
+        if (retryAfter > 0) {
+            response.setHeader("Retry-After", String.valueOf(retryAfter));
+        }
+        errorBodies.write(response, status, message);
+    }
+
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    // The whole body is already in memory, so it is available at once
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.garv.SpringSecEx.Utlity;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Hands out connections to read replicas, round robin over the ones that passed their
+ * last health check, and falls back to the primary when none is usable. A replica passes
+ * when it answers and its replication lag is within maxLag, which must stay well below
+ * the read-your-writes window; until its first check it is not used. Used as the
+ * read-only target of a LazyConnectionDataSourceProxy, so only read-only transactions
+ * get here; everything else goes straight to the primary.
+ * <p>
+ * {@link #onPrimary} pins the current thread to the primary, for reads that must see a
+ * write the replicas may not have replayed yet (see ReadYourWrites).
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    private static final ThreadLocal<Boolean> PRIMARY_PINNED = new ThreadLocal<>();
+
+    // Seconds of replay lag. A standby that replayed all it received from a live stream is
+    // current even if the primary has been idle, so the replay timestamp alone overstates it
+    static final String LAG_QUERY = "select case"
+            + " when not pg_is_in_recovery() then 0"
+            + " when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn()"
+            + " and exists (select 1 from pg_stat_wal_receiver where status = 'streaming') then 0"
+            + " else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 'Infinity')"
+            + " end";
+
+    public static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy;
+        private volatile double lagSeconds = Double.NaN;
+
+        public Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        /**
+         * @return replication lag at the last health check, NaN if it could not be measured
+         */
+        public double getLagSeconds() {
+            return lagSeconds;
+        }
+    }
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Duration healthTimeout;
+    private final double maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, Duration healthTimeout,
+                                    Duration maxLag) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.healthTimeout = healthTimeout;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Run a lookup with every connection it opens taken from the primary.
+     */
+    public static <T> T onPrimary(Supplier<T> lookup) {
+        Boolean previous = PRIMARY_PINNED.get();
+        PRIMARY_PINNED.set(Boolean.TRUE);
+        try {
+            return lookup.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_PINNED.remove();
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (PRIMARY_PINNED.get() == null) {
+            int size = replicas.size();
+            int start = next.getAndIncrement() & Integer.MAX_VALUE;
+            for (int i = 0; i < size; i++) {
+                Replica replica = replicas.get((start + i) % size);
+                if (!replica.healthy) {
+                    continue;
+                }
+                try {
+                    return replica.dataSource.getConnection();
+                } catch (SQLException e) {
+                    markDown(replica, e.getMessage());
+                }
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // The replica pools have fixed credentials, so explicit ones can only go to the primary
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * Validate one connection per replica and measure its replication lag; a replica that
+     * fails or lags more than maxLag is skipped until it passes again.
+     */
+    @Scheduled(fixedDelayString = "${auth.datasource.replicas.health-interval-ms:1000}")
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (!connection.isValid((int) Math.max(1, healthTimeout.toSeconds()))) {
+                    throw new SQLException("connection not valid");
+                }
+                double lag = replicationLag(connection);
+                replica.lagSeconds = lag;
+                if (lag > maxLagSeconds) {
+                    markDown(replica, String.format(Locale.ROOT, "replication lag %.1fs over %.1fs", lag, maxLagSeconds));
+                } else if (!replica.healthy) {
+                    log.info("Replica {} is available", replica.name);
+                    replica.healthy = true;
+                }
+            } catch (SQLException e) {
+                replica.lagSeconds = Double.NaN;
+                markDown(replica, e.getMessage());
+            }
+        }
+    }
+
+    private double replicationLag(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(LAG_QUERY)) {
+            statement.setQueryTimeout((int) Math.max(1, healthTimeout.toSeconds()));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    throw new SQLException("no replication lag returned");
+                }
+                return resultSet.getDouble(1);
+            }
+        }
+    }
+
+    // Replica pools are not beans of their own; called as the bean's inferred destroy method
+    public void close() {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.debug("Closing replica {} failed: {}", replica.name, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static void markDown(Replica replica, String reason) {
+        if (replica.healthy) {
+            log.warn("Replica {} is unavailable, reading from the primary: {}", replica.name, reason);
+            replica.healthy = false;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.garv.SpringSecEx.Utlity;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable snapshot of the role definitions, resolving a user's role mask to its
+ * effective authorities: ROLE_&lt;name&gt; for every role held directly or through
+ * includes, plus all their permissions.
+ * <p>
+ * The role closure is computed once per snapshot, and the authority set for each
+ * distinct mask is built once and then shared (as an unmodifiable set) by every
+ * principal with that mask, so authorizing a request never walks the hierarchy.
+ * A changed role definition produces a new snapshot with a higher version.
+ */
+public final class RoleAuthorities {
+
+    public static final int MAX_ROLES = 63;
+    public static final String ROLE_PREFIX = "ROLE_";
+
+    public record RoleDefinition(String name, int bit, Set<String> includes, Set<String> permissions) {
+    }
+
+    private final long version;
+    private final Set<RoleDefinition> definitions;
+    private final Map<String, Integer> bitsByName = new HashMap<>();
+    private final String[] namesByBit = new String[MAX_ROLES];
+    private final long[] closureByBit = new long[MAX_ROLES];
+    private final Map<Long, Set<GrantedAuthority>> authoritiesByMask = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<String>> permissionsByBit = new HashMap<>();
+
+    public RoleAuthorities(long version, Collection<RoleDefinition> roles) {
+        this.version = version;
+        this.definitions = Set.copyOf(roles);
+        for (RoleDefinition role : roles) {
+            if (role.bit() < 0 || role.bit() >= MAX_ROLES) {
+                throw new IllegalArgumentException("Role bit out of range: " + role.name() + "=" + role.bit());
+            }
+            bitsByName.put(role.name(), role.bit());
+            namesByBit[role.bit()] = role.name();
+            permissionsByBit.put(role.bit(), Set.copyOf(role.permissions()));
+        }
+
+        Map<String, RoleDefinition> byName = new HashMap<>();
+        roles.forEach(role -> byName.put(role.name(), role));
+        for (RoleDefinition role : roles) {
+            closureByBit[role.bit()] = closure(role, byName);
+        }
+    }
+
+    // Mask of the role and everything it includes, directly or transitively; cycles are harmless
+    private long closure(RoleDefinition role, Map<String, RoleDefinition> byName) {
+        long mask = 0;
+        Deque<RoleDefinition> pending = new ArrayDeque<>();
+        pending.push(role);
+        while (!pending.isEmpty()) {
+            RoleDefinition current = pending.pop();
+            long bit = 1L << current.bit();
+            if ((mask & bit) != 0) {
+                continue;
+            }
+            mask |= bit;
+            for (String included : current.includes()) {
+                RoleDefinition includedRole = byName.get(included);
+                if (includedRole != null) {
+                    pending.push(includedRole);
+                }
+            }
+        }
+        return mask;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public Set<RoleDefinition> definitions() {
+        return definitions;
+    }
+
+    /**
+     * @return the shared, unmodifiable authority set for a role mask
+     */
+    public Set<GrantedAuthority> authoritiesFor(long roleMask) {
+        return authoritiesByMask.computeIfAbsent(roleMask, this::resolve);
+    }
+
+    private Set<GrantedAuthority> resolve(long roleMask) {
+        long effective = 0;
+        for (long remaining = roleMask; remaining != 0; remaining &= remaining - 1) {
+            int bit = Long.numberOfTrailingZeros(remaining);
+            if (bit < MAX_ROLES) {
+                effective |= closureByBit[bit];
+            }
+        }
+
+        Set<GrantedAuthority> authorities = new LinkedHashSet<>();
+        for (long remaining = effective; remaining != 0; remaining &= remaining - 1) {
+            int bit = Long.numberOfTrailingZeros(remaining);
+            authorities.add(new SimpleGrantedAuthority(ROLE_PREFIX + namesByBit[bit]));
+        }
+        for (long remaining = effective; remaining != 0; remaining &= remaining - 1) {
+            int bit = Long.numberOfTrailingZeros(remaining);
+            permissionsByBit.get(bit).forEach(permission -> authorities.add(new SimpleGrantedAuthority(permission)));
+        }
+        return Set.copyOf(authorities);
+    }
+
+    /**
+     * @throws IllegalArgumentException if a role name is unknown
+     */
+    public long maskOf(Collection<String> roleNames) {
+        long mask = 0;
+        for (String name : roleNames) {
+            Integer bit = bitsByName.get(name);
+            if (bit == null) {
+                throw new IllegalArgumentException("Unknown role: " + name);
+            }
+            mask |= 1L << bit;
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,58 @@
+package com.garv.SpringSecEx.Utlity;
+
+import org.slf4j.Logger;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rate-limited logging for messages that an attacker can trigger at will, such as
+ * invalid tokens. At most {@code perMinute} messages (in bursts of up to that many) are
+ * written; the rest are counted and the count is reported with the next one that gets
+ * through. Level checks come first, so a disabled level costs nothing.
+ */
+public final class SampledLogger {
+
+    private final Logger log;
+    private final TokenBucket bucket;
+    private final LongAdder suppressed = new LongAdder();
+
+    public SampledLogger(Logger log, int perMinute) {
+        this.log = log;
+        this.bucket = new TokenBucket(perMinute, perMinute);
+    }
+
+    // Fixed-arity overloads: no varargs array on the hot path
+    public void debug(String format, Object first, Object second) {
+        if (log.isDebugEnabled() && permit()) {
+            log.debug(format, first, second);
+            reportSuppressed(false);
+        }
+    }
+
+    public void warn(String format, Object first, Object second) {
+        if (log.isWarnEnabled() && permit()) {
+            log.warn(format, first, second);
+            reportSuppressed(true);
+        }
+    }
+
+    private boolean permit() {
+        if (bucket.tryConsume()) {
+            return true;
+        }
+        suppressed.increment();
+        return false;
+    }
+
+    private void reportSuppressed(boolean warn) {
+        long skipped = suppressed.sumThenReset();
+        if (skipped == 0) {
+            return;
+        }
+        if (warn) {
+            log.warn("{} similar messages suppressed", skipped);
+        } else {
+            log.debug("{} similar messages suppressed", skipped);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.garv.SpringSecEx.Utlity;
+
+import com.garv.SpringSecEx.exception.ServiceBusyException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Turns a {@link ServiceBusyException} raised in the security filter chain (a user lookup
+ * in JwtFilter rejected by the DatabaseBulkhead, say) into the same 503 with Retry-After
+ * that GlobalExceptionHandler gives controllers, instead of a 500 from the error page.
+ */
+@Component
+public class ServiceBusyFilter extends OncePerRequestFilter {
+
+    private final ErrorBodies errorBodies;
+
+    public ServiceBusyFilter(ErrorBodies errorBodies) {
+        this.errorBodies = errorBodies;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } catch (ServiceBusyException e) {
+            reject(response, e);
+        } catch (ServletException e) {
+            if (!(e.getCause() instanceof ServiceBusyException busy)) {
+                throw e;
+            }
+            reject(response, busy);
+        }
+    }
+
+    private void reject(HttpServletResponse response, ServiceBusyException e) throws IOException {
+        if (response.isCommitted()) {
+            throw e;
+        }
+        response.resetBuffer();
+        response.setHeader("Retry-After", "1");
+        errorBodies.write(response, HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+    }
+}
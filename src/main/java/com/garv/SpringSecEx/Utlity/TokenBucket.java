@@ -0,0 +1,56 @@
+package com.garv.SpringSecEx.Utlity;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free token bucket. State is swapped with a CAS, so concurrent requests for the
+ * same key never block each other.
+ */
+public class TokenBucket {
+
+    private record State(double tokens, long refilledAtNanos) {
+    }
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final AtomicReference<State> state;
+
+    /**
+     * @param capacity maximum burst size
+     * @param refillPerMinute tokens added back per minute
+     */
+    public TokenBucket(int capacity, int refillPerMinute) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerMinute / 60_000_000_000d;
+        this.state = new AtomicReference<>(new State(capacity, System.nanoTime()));
+    }
+
+    /**
+     * @return true if a token was taken, false if the bucket is empty
+     */
+    public boolean tryConsume() {
+        while (true) {
+            State current = state.get();
+            long now = System.nanoTime();
+            double available = Math.min(capacity, current.tokens + (now - current.refilledAtNanos) * tokensPerNano);
+            if (available < 1) {
+                return false;
+            }
+            if (state.compareAndSet(current, new State(available - 1, now))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return seconds until the next token becomes available
+     */
+    public long secondsUntilRefill() {
+        State current = state.get();
+        double missing = 1 - (current.tokens + (System.nanoTime() - current.refilledAtNanos) * tokensPerNano);
+        if (missing <= 0) {
+            return 0;
+        }
+        return (long) Math.ceil(missing / tokensPerNano / 1_000_000_000d);
+    }
+}
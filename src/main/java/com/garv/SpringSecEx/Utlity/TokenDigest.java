@@ -0,0 +1,26 @@
+package com.garv.SpringSecEx.Utlity;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Compact 128-bit key for a token: the first 16 bytes of its SHA-256 digest.
+ * Used so caches and lookup tables never have to hold the raw token.
+ */
+public record TokenDigest(long high, long low) {
+
+    public static TokenDigest of(String token) {
+        ByteBuffer digest = ByteBuffer.wrap(sha256(token));
+        return new TokenDigest(digest.getLong(), digest.getLong());
+    }
+
+    public static byte[] sha256(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.garv.SpringSecEx.Utlity;
+
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+
+import java.util.List;
+
+/**
+ * Client addresses allowed to reach the actuator endpoints without a token, as CIDR
+ * blocks (auth.actuator.trusted-networks), so monitoring can scrape them. The address
+ * is the request's remote address, which behind a load balancer is only the client's
+ * when the forwarded headers are applied.
+ */
+public class TrustedNetworks {
+
+    private final List<IpAddressMatcher> networks;
+
+    public TrustedNetworks(List<String> cidrs) {
+        this.networks = cidrs.stream()
+                .map(String::trim)
+                .filter(cidr -> !cidr.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
+    }
+
+    public boolean contains(String address) {
+        if (address == null) {
+            return false;
+        }
+        try {
+            return networks.stream().anyMatch(network -> network.matches(address));
+        } catch (IllegalArgumentException e) {
+            return false; // not an IP address
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.garv.SpringSecEx.Utlity;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Canonical form of a username: trimmed, Unicode NFKC normalized and lower-cased.
+ * Usernames are stored in this form, so "Alice", " alice" and the full-width
+ * "ａｌｉｃｅ" are one account, and lookups are plain equality on the unique index.
+ */
+public final class UsernameNormalizer {
+
+    private UsernameNormalizer() {
+    }
+
+    public static String normalize(String username) {
+        if (username == null) {
+            return null;
+        }
+        // NFKC first: compatibility forms can case-fold differently once decomposed
+        return Normalizer.normalize(username.trim(), Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+    }
+}
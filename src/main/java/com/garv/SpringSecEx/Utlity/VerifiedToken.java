@@ -0,0 +1,43 @@
+package com.garv.SpringSecEx.Utlity;
+
+import java.time.Instant;
+
+/**
+ * Immutable view of a token whose signature and expiry have already been checked
+ * by {@link JwtUtil}. Callers read the claims from here instead of parsing the
+ * token again.
+ * <p>
+ * {@code roleMask} and {@code tokenVersion} are only present on access tokens
+ * issued with embedded claims; they are null on older tokens. The mask is resolved
+ * to authorities through RoleRegistry.
+ */
+public record VerifiedToken(String id,
+                            String subject,
+                            String type,
+                            Instant issuedAt,
+                            Instant expiresAt,
+                            Long roleMask,
+                            Integer tokenVersion) {
+
+    public static final String ACCESS = "access";
+    public static final String REFRESH = "refresh";
+
+    public boolean isAccessToken() {
+        return ACCESS.equals(type);
+    }
+
+    public boolean isRefreshToken() {
+        return REFRESH.equals(type);
+    }
+
+    /**
+     * @return true if the token carries enough claims to authenticate without a user lookup
+     */
+    public boolean hasEmbeddedClaims() {
+        return roleMask != null && tokenVersion != null;
+    }
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
@@ -0,0 +1,16 @@
+package com.garv.SpringSecEx.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkRegisterResponse {
+    private long created;
+    private long failed;
+    private List<ImportEvent> errors;
+}
@@ -0,0 +1,15 @@
+package com.garv.SpringSecEx.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CurrentUserResponse {
+    private String username;
+    private List<String> authorities;
+}
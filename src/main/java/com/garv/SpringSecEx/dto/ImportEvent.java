@@ -0,0 +1,41 @@
+package com.garv.SpringSecEx.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of the NDJSON stream returned by a user import: a rejected row, progress
+ * after each chunk, or the final totals.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportEvent {
+
+    public static final String ERROR = "error";
+    public static final String PROGRESS = "progress";
+    public static final String DONE = "done";
+
+    private String type;
+    private Long line;
+    private String username;
+    private String message;
+    private Long processed;
+    private Long created;
+    private Long failed;
+
+    public static ImportEvent error(long line, String username, String message) {
+        return new ImportEvent(ERROR, line, username, message, null, null, null);
+    }
+
+    public static ImportEvent progress(long processed, long created, long failed) {
+        return new ImportEvent(PROGRESS, null, null, null, processed, created, failed);
+    }
+
+    public static ImportEvent done(long processed, long created, long failed) {
+        return new ImportEvent(DONE, null, null, null, processed, created, failed);
+    }
+}
@@ -0,0 +1,19 @@
+package com.garv.SpringSecEx.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One user to import. Either a plain password, which is hashed during the import, or an
+ * already encoded passwordHash with an {id} prefix (e.g. {bcrypt}...) migrated from
+ * another system, which is stored as is and upgraded on the user's next login.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportUserRow {
+    private String username;
+    private String password;
+    private String passwordHash;
+}
@@ -0,0 +1,14 @@
+package com.garv.SpringSecEx.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IntrospectRequest {
+    private List<String> tokens;
+}
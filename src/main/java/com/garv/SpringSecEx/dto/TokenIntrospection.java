@@ -0,0 +1,35 @@
+package com.garv.SpringSecEx.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Result for one token of /auth/introspect, in the order the tokens were sent.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenIntrospection {
+
+    private boolean active;
+    private String subject;
+    private String type;          // access or refresh
+    private Long expiresAt;       // epoch seconds
+    private List<String> authorities;
+    private String reason;        // why an inactive token was rejected, e.g. expired or revoked
+    private long cacheSeconds;    // how long the caller may reuse this result
+
+    public static TokenIntrospection active(String subject, String type, long expiresAt,
+                                            List<String> authorities, long cacheSeconds) {
+        return new TokenIntrospection(true, subject, type, expiresAt, authorities, null, cacheSeconds);
+    }
+
+    public static TokenIntrospection inactive(String reason, long cacheSeconds) {
+        return new TokenIntrospection(false, null, null, null, null, reason, cacheSeconds);
+    }
+}
@@ -0,0 +1,20 @@
+package com.garv.SpringSecEx.event;
+
+import java.time.Instant;
+
+/**
+ * Invalidation broadcast between nodes by the InvalidationBus, and republished locally
+ * on the receiving node.
+ * @param key jti for TOKEN_REVOKED, username otherwise
+ * @param until token expiry for TOKEN_REVOKED, cutoff for USER_CUTOFF, null for USER_CHANGED
+ * @param origin id of the node that sent it
+ * @param sentAtMillis sender's clock when sent, for the lag metric
+ */
+public record InvalidationEvent(Type type, String key, Instant until, String origin, long sentAtMillis) {
+
+    public enum Type {
+        TOKEN_REVOKED,
+        USER_CUTOFF,
+        USER_CHANGED
+    }
+}
@@ -0,0 +1,8 @@
+package com.garv.SpringSecEx.event;
+
+/**
+ * Published when the InvalidationBus may have missed events, e.g. after its listener
+ * reconnected. Caches drop everything they hold instead of waiting for their TTL.
+ */
+public record InvalidationGapEvent(String reason) {
+}
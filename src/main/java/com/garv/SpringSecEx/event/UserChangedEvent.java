@@ -0,0 +1,15 @@
+package com.garv.SpringSecEx.event;
+
+/**
+ * Published whenever something cached about a user (password, roles, token version,
+ * existence) may have changed. Caches listen for it and drop their entry.
+ * <p>
+ * {@code remote} is set when the change happened on another node and arrived through
+ * the InvalidationBus, so it is not broadcast again.
+ */
+public record UserChangedEvent(String username, boolean remote) {
+
+    public UserChangedEvent(String username) {
+        this(username, false);
+    }
+}
@@ -1,8 +1,11 @@
 package com.garv.SpringSecEx.exception;
 
+import com.garv.SpringSecEx.Utlity.ErrorBodies;
 import com.garv.SpringSecEx.dto.ApiResponse;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -11,34 +14,57 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    // Rejections with fixed messages are answered with pre-encoded bodies, see ErrorBodies
+    private final ErrorBodies errorBodies;
+
+    public GlobalExceptionHandler(ErrorBodies errorBodies) {
+        this.errorBodies = errorBodies;
+    }
+
     @ExceptionHandler(UserAlreadyExistsException.class)
-    public ResponseEntity<ApiResponse<Object>> handleUserAlreadyExists(UserAlreadyExistsException ex) {
-        ApiResponse<Object> response = ApiResponse.error(ex.getMessage(), HttpStatus.CONFLICT.value());
-        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    public ResponseEntity<byte[]> handleUserAlreadyExists(UserAlreadyExistsException ex) {
+        return errorBodies.response(HttpStatus.CONFLICT, ex.getMessage());
     }
 
     @ExceptionHandler(InvalidCredentialsException.class)
-    public ResponseEntity<ApiResponse<Object>> handleInvalidCredentials(InvalidCredentialsException ex) {
-        ApiResponse<Object> response = ApiResponse.error(ex.getMessage(), HttpStatus.UNAUTHORIZED.value());
-        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
+    public ResponseEntity<byte[]> handleInvalidCredentials(InvalidCredentialsException ex) {
+        return errorBodies.response(HttpStatus.UNAUTHORIZED, ex.getMessage());
     }
 
     @ExceptionHandler(BadCredentialsException.class)
-    public ResponseEntity<ApiResponse<Object>> handleBadCredentials(BadCredentialsException ex) {
-        ApiResponse<Object> response = ApiResponse.error("Invalid username or password", HttpStatus.UNAUTHORIZED.value());
-        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
+    public ResponseEntity<byte[]> handleBadCredentials(BadCredentialsException ex) {
+        return errorBodies.response(HttpStatus.UNAUTHORIZED, "Invalid username or password");
     }
 
     @ExceptionHandler(InvalidTokenException.class)
-    public ResponseEntity<ApiResponse<Object>> handleInvalidToken(InvalidTokenException ex) {
-        ApiResponse<Object> response = ApiResponse.error(ex.getMessage(), HttpStatus.UNAUTHORIZED.value());
-        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
+    public ResponseEntity<byte[]> handleInvalidToken(InvalidTokenException ex) {
+        return errorBodies.response(HttpStatus.UNAUTHORIZED, ex.getMessage());
     }
 
     @ExceptionHandler(UsernameNotFoundException.class)
-    public ResponseEntity<ApiResponse<Object>> handleUsernameNotFound(UsernameNotFoundException ex) {
-        ApiResponse<Object> response = ApiResponse.error(ex.getMessage(), HttpStatus.NOT_FOUND.value());
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+    public ResponseEntity<byte[]> handleUsernameNotFound(UsernameNotFoundException ex) {
+        return errorBodies.response(HttpStatus.NOT_FOUND, "User not found");
+    }
+
+    // Messages name the unknown role, so they are not cached
+    @ExceptionHandler(UnknownRoleException.class)
+    public ResponseEntity<ApiResponse<Object>> handleUnknownRole(UnknownRoleException ex) {
+        ApiResponse<Object> response = ApiResponse.error(ex.getMessage(), HttpStatus.BAD_REQUEST.value());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+
+    // Thrown by @PreAuthorize; without this the generic handler would turn it into a 500
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<byte[]> handleAccessDenied(AccessDeniedException ex) {
+        return errorBodies.response(HttpStatus.FORBIDDEN, "Access denied");
+    }
+
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<byte[]> handleServiceBusy(ServiceBusyException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Retry-After", "1")
+                .body(errorBodies.body(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage()));
     }
 
     @ExceptionHandler(Exception.class)
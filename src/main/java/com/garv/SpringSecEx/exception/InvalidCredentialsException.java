@@ -1,7 +1,8 @@
 package com.garv.SpringSecEx.exception;
 
 public class InvalidCredentialsException extends RuntimeException {
+    // No stack trace: failed logins are the common case under attack, and the trace is never read
     public InvalidCredentialsException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
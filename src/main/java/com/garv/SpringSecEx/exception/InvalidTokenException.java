@@ -1,7 +1,8 @@
 package com.garv.SpringSecEx.exception;
 
 public class InvalidTokenException extends RuntimeException {
+    // Stackless, like InvalidCredentialsException; the handler only uses the message
     public InvalidTokenException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
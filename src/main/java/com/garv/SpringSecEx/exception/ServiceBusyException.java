@@ -0,0 +1,8 @@
+package com.garv.SpringSecEx.exception;
+
+public class ServiceBusyException extends RuntimeException {
+    // Stackless: thrown on every request shed while the service is saturated
+    public ServiceBusyException(String message) {
+        super(message, null, false, false);
+    }
+}
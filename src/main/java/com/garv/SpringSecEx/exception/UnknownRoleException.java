@@ -0,0 +1,7 @@
+package com.garv.SpringSecEx.exception;
+
+public class UnknownRoleException extends RuntimeException {
+    public UnknownRoleException(String message) {
+        super(message);
+    }
+}
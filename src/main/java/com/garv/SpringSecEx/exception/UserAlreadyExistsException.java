@@ -1,7 +1,8 @@
 package com.garv.SpringSecEx.exception;
 
 public class UserAlreadyExistsException extends RuntimeException {
+    // Stackless: a conflict is an expected outcome, not a bug to trace
     public UserAlreadyExistsException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
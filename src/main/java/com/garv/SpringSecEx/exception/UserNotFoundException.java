@@ -0,0 +1,19 @@
+package com.garv.SpringSecEx.exception;
+
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+/**
+ * UsernameNotFoundException without a stack trace, for lookups of usernames that
+ * anyone can send; DaoAuthenticationProvider turns it into a bad-credentials failure.
+ */
+public class UserNotFoundException extends UsernameNotFoundException {
+
+    public UserNotFoundException(String message) {
+        super(message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,108 @@
+package com.garv.SpringSecEx.reactive;
+
+import com.garv.SpringSecEx.Entity.UserPrincipal;
+import com.garv.SpringSecEx.Services.TokenRevocationService;
+import com.garv.SpringSecEx.Utlity.AuthMetrics;
+import com.garv.SpringSecEx.Utlity.InvalidTokenReason;
+import com.garv.SpringSecEx.Utlity.JwtFilter;
+import com.garv.SpringSecEx.Utlity.SampledLogger;
+import com.garv.SpringSecEx.Utlity.VerifiedToken;
+import com.garv.SpringSecEx.Utlity.VerifiedTokenCache;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * WebFilter version of {@link JwtFilter}. Verification, the type check and the
+ * revocation check are in-memory and run inline; the user is loaded through the
+ * non-blocking {@link ReactiveUserDetailsService}. Tokens carrying a token version
+ * must match the user's current one.
+ * <p>
+ * Not a bean on purpose: ReactiveSecurityConfig adds it to the security chain only,
+ * since WebFlux would also register any WebFilter bean globally.
+ */
+public class JwtWebFilter implements WebFilter {
+
+    private static final SampledLogger invalidTokenLog =
+            new SampledLogger(LoggerFactory.getLogger(JwtWebFilter.class), 60);
+
+    private final VerifiedTokenCache tokenCache;
+    private final TokenRevocationService revocationService;
+    private final ReactiveUserDetailsService userDetailsService;
+    private final AuthMetrics authMetrics;
+
+    public JwtWebFilter(VerifiedTokenCache tokenCache,
+                        TokenRevocationService revocationService,
+                        ReactiveUserDetailsService userDetailsService,
+                        AuthMetrics authMetrics) {
+        this.tokenCache = tokenCache;
+        this.revocationService = revocationService;
+        this.userDetailsService = userDetailsService;
+        this.authMetrics = authMetrics;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return chain.filter(exchange);
+        }
+
+        VerifiedToken verifiedToken = verify(authHeader.substring(7));
+        if (verifiedToken == null) {
+            return chain.filter(exchange);
+        }
+
+        // Decide on the context first so an empty result can't re-run the chain
+        return authenticate(verifiedToken)
+                .doOnNext(authentication -> exchange.getAttributes()
+                        .put(JwtFilter.VERIFIED_TOKEN_ATTRIBUTE, verifiedToken))
+                .map(ReactiveSecurityContextHolder::withAuthentication)
+                .defaultIfEmpty(Context.empty())
+                .flatMap(context -> chain.filter(exchange).contextWrite(context));
+    }
+
+    private VerifiedToken verify(String token) {
+        try {
+            VerifiedToken candidate = tokenCache.verify(token);
+            if (!candidate.isAccessToken()) {
+                authMetrics.invalidToken(InvalidTokenReason.WRONG_TYPE);
+                return null;
+            }
+            if (revocationService.isRevoked(candidate)) {
+                authMetrics.invalidToken(InvalidTokenReason.REVOKED);
+                return null;
+            }
+            return candidate;
+        } catch (Exception e) {
+            InvalidTokenReason reason = InvalidTokenReason.of(e);
+            authMetrics.invalidToken(reason);
+            invalidTokenLog.debug("Invalid token ({}): {}", reason.tag(), e.getMessage());
+            return null;
+        }
+    }
+
+    private Mono<Authentication> authenticate(VerifiedToken verifiedToken) {
+        return userDetailsService.findByUsername(verifiedToken.subject())
+                .filter(user -> isCurrent(user, verifiedToken))
+                .map(user -> new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    private boolean isCurrent(UserDetails user, VerifiedToken verifiedToken) {
+        if (verifiedToken.tokenVersion() != null && user instanceof UserPrincipal principal
+                && principal.getTokenVersion() != verifiedToken.tokenVersion()) {
+            authMetrics.invalidToken(InvalidTokenReason.STALE_VERSION);
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,67 @@
+package com.garv.SpringSecEx.reactive;
+
+import com.garv.SpringSecEx.Entity.UserPrincipal;
+import com.garv.SpringSecEx.Utlity.UsernameNormalizer;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsPasswordService;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Reactive counterpart of MyUserDetailsService and CachedUserDetailsService: loads users
+ * over R2DBC and keeps them in a short-lived local cache. The cache holds the pending
+ * lookup, so concurrent requests for the same user share one query.
+ */
+@Profile("reactive")
+@Service
+public class R2dbcUserDetailsService implements ReactiveUserDetailsService, ReactiveUserDetailsPasswordService {
+
+    private final ReactiveUserRepository userRepository;
+    private final ReactiveRoleRegistry roleRegistry;
+    private final AsyncCache<String, UserPrincipal> cache;
+
+    public R2dbcUserDetailsService(ReactiveUserRepository userRepository,
+                                   ReactiveRoleRegistry roleRegistry,
+                                   @Value("${auth.user-cache.ttl:5m}") Duration ttl,
+                                   @Value("${auth.user-cache.max-size:10000}") long maxSize) {
+        this.userRepository = userRepository;
+        this.roleRegistry = roleRegistry;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .buildAsync();
+    }
+
+    @Override
+    public Mono<UserDetails> findByUsername(String username) {
+        String normalized = UsernameNormalizer.normalize(username);
+        // A missing user completes with null, which Caffeine does not cache
+        return Mono.fromFuture(() -> cache.get(normalized, (key, executor) -> userRepository.findByUsername(key)
+                        .map(row -> roleRegistry.principal(row.toUsers()))
+                        .toFuture()))
+                .cast(UserDetails.class);
+    }
+
+    /**
+     * Called by UserDetailsRepositoryReactiveAuthenticationManager when a stored hash is
+     * outdated, with the password already re-encoded.
+     */
+    @Override
+    public Mono<UserDetails> updatePassword(UserDetails user, String newPassword) {
+        return userRepository.updatePassword(user.getUsername(), newPassword)
+                .doOnNext(updated -> evict(user.getUsername()))
+                .then(findByUsername(user.getUsername()))
+                .defaultIfEmpty(user);
+    }
+
+    public void evict(String username) {
+        cache.synchronous().invalidate(UsernameNormalizer.normalize(username));
+    }
+}
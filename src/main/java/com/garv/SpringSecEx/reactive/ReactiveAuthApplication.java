@@ -0,0 +1,52 @@
+package com.garv.SpringSecEx.reactive;
+
+import com.garv.SpringSecEx.Conig.PasswordConfig;
+import com.garv.SpringSecEx.Controller.JwksController;
+import com.garv.SpringSecEx.Services.LoginRateLimiter;
+import com.garv.SpringSecEx.Services.TokenRevocationService;
+import com.garv.SpringSecEx.Utlity.AuthMetrics;
+import com.garv.SpringSecEx.Utlity.ErrorBodies;
+import com.garv.SpringSecEx.Utlity.JwtKeyRing;
+import com.garv.SpringSecEx.Utlity.JwtUtil;
+import com.garv.SpringSecEx.Utlity.VerifiedTokenCache;
+import com.garv.SpringSecEx.exception.GlobalExceptionHandler;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Non-blocking variant of the auth service: WebFlux on Netty, R2DBC for the users and
+ * refresh_tokens tables, and the same tokens, keys and password hashes as the servlet
+ * application, so both can run side by side against one database.
+ * <p>
+ * Only this package is scanned; the stack-independent beans are imported explicitly.
+ * Everything here is limited to the "reactive" profile so SpringSecExApplication's
+ * component scan skips it.
+ */
+@Profile("reactive")
+@SpringBootApplication
+@EnableScheduling
+@Import({
+        JwtKeyRing.class,
+        JwtUtil.class,
+        VerifiedTokenCache.class,
+        TokenRevocationService.class,
+        LoginRateLimiter.class,
+        AuthMetrics.class,
+        PasswordConfig.class,
+        ErrorBodies.class,
+        GlobalExceptionHandler.class,
+        JwksController.class
+})
+public class ReactiveAuthApplication {
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveAuthApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles("reactive")
+                .run(args);
+    }
+}
@@ -0,0 +1,105 @@
+package com.garv.SpringSecEx.reactive;
+
+import com.garv.SpringSecEx.Services.LoginRateLimiter;
+import com.garv.SpringSecEx.Utlity.JwtFilter;
+import com.garv.SpringSecEx.Utlity.UsernameNormalizer;
+import com.garv.SpringSecEx.Utlity.VerifiedToken;
+import com.garv.SpringSecEx.dto.ApiResponse;
+import com.garv.SpringSecEx.dto.AuthResponse;
+import com.garv.SpringSecEx.dto.LoginRequest;
+import com.garv.SpringSecEx.dto.RefreshTokenRequest;
+import com.garv.SpringSecEx.dto.RegisterRequest;
+import com.garv.SpringSecEx.dto.UserResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.security.Principal;
+
+/**
+ * Reactive versions of the AuthController endpoints, with the same paths and responses.
+ */
+@Profile("reactive")
+@RestController
+@RequestMapping("/auth")
+public class ReactiveAuthController {
+
+    @Autowired
+    private ReactiveUserService userService;
+
+    @Autowired
+    private LoginRateLimiter rateLimiter;
+
+    @PostMapping("/register")
+    public Mono<ResponseEntity<ApiResponse<UserResponse>>> register(@RequestBody RegisterRequest registerRequest) {
+        return userService.register(registerRequest)
+                .map(userResponse -> ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success(
+                        userResponse,
+                        "User registered successfully",
+                        HttpStatus.CREATED.value()
+                )));
+    }
+
+    @PostMapping("/login")
+    public Mono<ResponseEntity<ApiResponse<AuthResponse>>> login(@RequestBody LoginRequest loginRequest,
+                                                                 ServerHttpRequest request) {
+        // Same throttle as LoginRateLimitFilter, applied before any hashing
+        long retryAfter = rateLimiter.tryAcquire(clientIp(request),
+                UsernameNormalizer.normalize(loginRequest.getUsername()));
+        if (retryAfter > 0) {
+            return Mono.just(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header("Retry-After", String.valueOf(retryAfter))
+                    .body(ApiResponse.<AuthResponse>error("Too many login attempts, please retry later",
+                            HttpStatus.TOO_MANY_REQUESTS.value())));
+        }
+
+        return userService.login(loginRequest)
+                .map(authResponse -> ResponseEntity.ok(ApiResponse.success(
+                        authResponse,
+                        "Login successful",
+                        HttpStatus.OK.value()
+                )));
+    }
+
+    @PostMapping("/refresh")
+    public Mono<ResponseEntity<ApiResponse<AuthResponse>>> refreshToken(@RequestBody RefreshTokenRequest refreshTokenRequest) {
+        return userService.refreshAccessToken(refreshTokenRequest.getRefreshToken())
+                .map(authResponse -> ResponseEntity.ok(ApiResponse.success(
+                        authResponse,
+                        "Token refreshed successfully",
+                        HttpStatus.OK.value()
+                )));
+    }
+
+    @PostMapping("/logout")
+    public Mono<ResponseEntity<ApiResponse<Object>>> logout(
+            @RequestAttribute(name = JwtFilter.VERIFIED_TOKEN_ATTRIBUTE, required = false) VerifiedToken accessToken) {
+        return userService.logout(accessToken)
+                .thenReturn(ResponseEntity.ok(ApiResponse.success(
+                        null,
+                        "Logged out successfully",
+                        HttpStatus.OK.value()
+                )));
+    }
+
+    @PostMapping("/logout-all")
+    public Mono<ResponseEntity<ApiResponse<Object>>> logoutAll(Mono<Principal> principal) {
+        return principal
+                .flatMap(user -> userService.logoutAll(user.getName()))
+                .thenReturn(ResponseEntity.ok(ApiResponse.success(
+                        null,
+                        "Logged out from all sessions",
+                        HttpStatus.OK.value()
+                )));
+    }
+
+    private static String clientIp(ServerHttpRequest request) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        return remoteAddress != null ? remoteAddress.getAddress().getHostAddress() : "unknown";
+    }
+}
@@ -0,0 +1,28 @@
+package com.garv.SpringSecEx.reactive;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+public interface ReactiveRefreshTokenRepository extends ReactiveCrudRepository<RefreshTokenRow, Long> {
+    Mono<RefreshTokenRow> findByTokenHash(String tokenHash);
+
+    Flux<RefreshTokenRow> findByUsernameAndRevokedFalseAndExpiresAtAfterOrderByCreatedAtAsc(String username, Instant now);
+
+    // Conditional update so two concurrent refreshes with the same token can't both succeed
+    @Modifying
+    @Query("update refresh_tokens set revoked = true, used_at = :now where id = :id and revoked = false")
+    Mono<Integer> markUsed(Long id, Instant now);
+
+    @Modifying
+    @Query("update refresh_tokens set revoked = true where family_id = :familyId and revoked = false")
+    Mono<Integer> revokeFamily(String familyId);
+
+    @Modifying
+    @Query("update refresh_tokens set revoked = true where username = :username and revoked = false")
+    Mono<Integer> revokeAllForUser(String username);
+}
@@ -0,0 +1,85 @@
+package com.garv.SpringSecEx.reactive;
+
+import com.garv.SpringSecEx.Utlity.JwtUtil;
+import com.garv.SpringSecEx.Utlity.TokenDigest;
+import com.garv.SpringSecEx.exception.InvalidTokenException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Reactive counterpart of RefreshTokenService over the same refresh_tokens table, with
+ * the same rotation and reuse detection rules. Expired rows are purged by the servlet
+ * application's scheduled job.
+ */
+@Profile("reactive")
+@Service
+public class ReactiveRefreshTokenService {
+
+    private final ReactiveRefreshTokenRepository refreshTokenRepository;
+    private final JwtUtil jwtUtil;
+    private final int maxSessionsPerUser;
+
+    public ReactiveRefreshTokenService(ReactiveRefreshTokenRepository refreshTokenRepository,
+                                       JwtUtil jwtUtil,
+                                       @Value("${auth.refresh.max-sessions-per-user:10}") int maxSessionsPerUser) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.jwtUtil = jwtUtil;
+        this.maxSessionsPerUser = maxSessionsPerUser;
+    }
+
+    @Transactional
+    public Mono<String> issueForLogin(String username) {
+        return refreshTokenRepository
+                .findByUsernameAndRevokedFalseAndExpiresAtAfterOrderByCreatedAtAsc(username, Instant.now())
+                .collectList()
+                .flatMapMany(active -> Flux.fromIterable(
+                        active.subList(0, Math.max(0, active.size() - maxSessionsPerUser + 1))))
+                .concatMap(oldest -> refreshTokenRepository.revokeFamily(oldest.getFamilyId()))
+                .then(Mono.defer(() -> issue(username, UUID.randomUUID().toString())));
+    }
+
+    @Transactional(noRollbackFor = InvalidTokenException.class)
+    public Mono<String> rotate(String refreshToken, String username) {
+        return refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                .filter(stored -> stored.getUsername().equals(username))
+                .switchIfEmpty(Mono.error(() -> new InvalidTokenException("Invalid or expired refresh token")))
+                .flatMap(stored -> (stored.isRevoked()
+                        ? Mono.just(0)
+                        : refreshTokenRepository.markUsed(stored.getId(), Instant.now()))
+                        .flatMap(updated -> updated == 0
+                                // Reuse of a rotated token: whoever holds the family can no longer refresh
+                                ? refreshTokenRepository.revokeFamily(stored.getFamilyId())
+                                        .then(Mono.<String>error(new InvalidTokenException("Refresh token reuse detected")))
+                                : issue(username, stored.getFamilyId())));
+    }
+
+    @Transactional
+    public Mono<Void> revokeAllForUser(String username) {
+        return refreshTokenRepository.revokeAllForUser(username).then();
+    }
+
+    private Mono<String> issue(String username, String familyId) {
+        String token = jwtUtil.generateRefreshToken(username);
+        Instant now = Instant.now();
+
+        RefreshTokenRow refreshToken = new RefreshTokenRow();
+        refreshToken.setTokenHash(hash(token));
+        refreshToken.setUsername(username);
+        refreshToken.setFamilyId(familyId);
+        refreshToken.setCreatedAt(now);
+        refreshToken.setExpiresAt(now.plusMillis(jwtUtil.getRefreshTokenExpirationMs()));
+        return refreshTokenRepository.save(refreshToken).thenReturn(token);
+    }
+
+    private static String hash(String token) {
+        return HexFormat.of().formatHex(TokenDigest.sha256(token));
+    }
+}
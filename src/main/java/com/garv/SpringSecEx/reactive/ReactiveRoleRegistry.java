@@ -0,0 +1,85 @@
+package com.garv.SpringSecEx.reactive;
+
+import com.garv.SpringSecEx.Entity.UserPrincipal;
+import com.garv.SpringSecEx.Entity.Users;
+import com.garv.SpringSecEx.Services.RoleRegistry;
+import com.garv.SpringSecEx.Utlity.RoleAuthorities;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reactive counterpart of RoleRegistry, reading the same roles tables over R2DBC. The
+ * tables are created and seeded by the servlet application; until they can be read the
+ * built-in USER and ADMIN roles apply.
+ */
+@Profile("reactive")
+@Service
+public class ReactiveRoleRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveRoleRegistry.class);
+
+    private final DatabaseClient databaseClient;
+    private volatile RoleAuthorities current = new RoleAuthorities(0, RoleRegistry.defaultRoles());
+
+    public ReactiveRoleRegistry(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${auth.roles.reload-interval-ms:60000}")
+    public void reload() {
+        Mono.zip(
+                        databaseClient.sql("select id, name, mask_bit from roles")
+                                .map((row, meta) -> new RoleRow(
+                                        row.get("id", Long.class), row.get("name", String.class),
+                                        row.get("mask_bit", Integer.class)))
+                                .all().collectList(),
+                        namesByRole("select role_id, included_role as value from role_includes"),
+                        namesByRole("select role_id, permission as value from role_permissions"))
+                .map(loaded -> loaded.getT1().stream()
+                        .map(role -> new RoleAuthorities.RoleDefinition(role.name(), role.bit(),
+                                loaded.getT2().getOrDefault(role.id(), Set.of()),
+                                loaded.getT3().getOrDefault(role.id(), Set.of())))
+                        .toList())
+                .filter(definitions -> !definitions.isEmpty())
+                .subscribe(this::publish, e -> log.warn("Could not load role definitions: {}", e.getMessage()));
+    }
+
+    private Mono<Map<Long, Set<String>>> namesByRole(String sql) {
+        return databaseClient.sql(sql)
+                .map((row, meta) -> Map.entry(row.get("role_id", Long.class), row.get("value", String.class)))
+                .all()
+                .collect(HashMap::new, (byRole, entry) ->
+                        byRole.computeIfAbsent(entry.getKey(), id -> new HashSet<>()).add(entry.getValue()));
+    }
+
+    private void publish(List<RoleAuthorities.RoleDefinition> definitions) {
+        RoleAuthorities previous = current;
+        if (previous.definitions().equals(Set.copyOf(definitions))) {
+            return;
+        }
+        current = new RoleAuthorities(previous.version() + 1, definitions);
+        log.info("Loaded {} role definitions (version {})", definitions.size(), current.version());
+    }
+
+    public RoleAuthorities current() {
+        return current;
+    }
+
+    public UserPrincipal principal(Users user) {
+        return new UserPrincipal(user, current.authoritiesFor(user.getRoleMask()));
+    }
+
+    private record RoleRow(Long id, String name, int bit) {
+    }
+}
@@ -0,0 +1,86 @@
+package com.garv.SpringSecEx.reactive;
+
+import com.garv.SpringSecEx.Services.TokenRevocationService;
+import com.garv.SpringSecEx.Utlity.AuthMetrics;
+import com.garv.SpringSecEx.Utlity.TrustedNetworks;
+import com.garv.SpringSecEx.Utlity.VerifiedTokenCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.authorization.AuthorityReactiveAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.ReactiveAuthorizationManager;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.authorization.AuthorizationContext;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+/**
+ * Reactive equivalent of SecurityConfig: same public endpoints, stateless, with
+ * {@link JwtWebFilter} in the authentication slot.
+ */
+@Profile("reactive")
+@Configuration
+@EnableWebFluxSecurity
+public class ReactiveSecurityConfig {
+
+    /**
+     * Password checks run on the bounded hashing pool behind the shared encoder; the
+     * manager itself moves them off the event loop onto boundedElastic.
+     */
+    @Bean
+    public ReactiveAuthenticationManager reactiveAuthenticationManager(R2dbcUserDetailsService userDetailsService,
+                                                                       PasswordEncoder passwordEncoder) {
+        UserDetailsRepositoryReactiveAuthenticationManager manager =
+                new UserDetailsRepositoryReactiveAuthenticationManager(userDetailsService);
+        manager.setPasswordEncoder(passwordEncoder);
+        manager.setUserDetailsPasswordService(userDetailsService); // rehash outdated hashes on login
+        return manager;
+    }
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http,
+                                                         VerifiedTokenCache tokenCache,
+                                                         TokenRevocationService revocationService,
+                                                         R2dbcUserDetailsService userDetailsService,
+                                                         AuthMetrics authMetrics,
+                                                         @Value("${auth.actuator.trusted-networks:127.0.0.1/32,::1/128}")
+                                                         List<String> actuatorNetworks) {
+        TrustedNetworks trustedNetworks = new TrustedNetworks(actuatorNetworks);
+        ReactiveAuthorizationManager<AuthorizationContext> admin = AuthorityReactiveAuthorizationManager.hasRole("ADMIN");
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange(exchanges -> exchanges
+                        .pathMatchers("/auth/register", "/auth/login", "/auth/refresh").permitAll()
+                        .pathMatchers("/actuator/health/**").permitAll() // probes
+                        .pathMatchers("/actuator/**").access((authentication, context) -> {
+                            InetSocketAddress remote = context.getExchange().getRequest().getRemoteAddress();
+                            return remote != null && remote.getAddress() != null
+                                    && trustedNetworks.contains(remote.getAddress().getHostAddress())
+                                    ? Mono.just(new AuthorizationDecision(true))
+                                    : admin.check(authentication, context);
+                        })
+                        .pathMatchers("/.well-known/jwks.json").permitAll() // public signing keys
+                        .anyExchange().authenticated())
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.UNAUTHORIZED)))
+                .addFilterAt(new JwtWebFilter(tokenCache, revocationService, userDetailsService, authMetrics),
+                        SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+}
@@ -0,0 +1,14 @@
+package com.garv.SpringSecEx.reactive;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveUserRepository extends ReactiveCrudRepository<UserRow, Long> {
+    Mono<UserRow> findByUsername(String username);
+
+    @Modifying
+    @Query("update users set password = :password where username = :username")
+    Mono<Integer> updatePassword(String username, String password);
+}
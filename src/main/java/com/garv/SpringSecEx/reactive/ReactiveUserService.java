@@ -0,0 +1,145 @@
+package com.garv.SpringSecEx.reactive;
+
+import com.garv.SpringSecEx.Entity.UserPrincipal;
+import com.garv.SpringSecEx.Services.TokenRevocationService;
+import com.garv.SpringSecEx.Utlity.JwtUtil;
+import com.garv.SpringSecEx.Utlity.UsernameNormalizer;
+import com.garv.SpringSecEx.Utlity.VerifiedToken;
+import com.garv.SpringSecEx.dto.AuthResponse;
+import com.garv.SpringSecEx.dto.LoginRequest;
+import com.garv.SpringSecEx.dto.RegisterRequest;
+import com.garv.SpringSecEx.dto.UserResponse;
+import com.garv.SpringSecEx.exception.InvalidCredentialsException;
+import com.garv.SpringSecEx.exception.InvalidTokenException;
+import com.garv.SpringSecEx.exception.UserAlreadyExistsException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+
+/**
+ * Reactive counterpart of UserService. Blocking work is limited to password hashing,
+ * which runs on boundedElastic (and from there on the bounded hashing pool).
+ * Failed-login lockout is not tracked here; accounts locked by the servlet
+ * application are still rejected at password login.
+ */
+@Profile("reactive")
+@Service
+public class ReactiveUserService {
+
+    @Autowired
+    private ReactiveUserRepository userRepository;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private R2dbcUserDetailsService userDetailsService;
+
+    @Autowired
+    private ReactiveAuthenticationManager authenticationManager;
+
+    @Autowired
+    private ReactiveRefreshTokenService refreshTokenService;
+
+    @Autowired
+    private TokenRevocationService revocationService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ReactiveRoleRegistry roleRegistry;
+
+    private static final long ACCESS_TOKEN_EXPIRY_MS = 1000 * 60 * 60; // 1 hour
+
+    public Mono<UserResponse> register(RegisterRequest registerRequest) {
+        String username = UsernameNormalizer.normalize(registerRequest.getUsername());
+        return Mono.fromCallable(() -> passwordEncoder.encode(registerRequest.getPassword()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(hash -> insertIfAbsent(username, hash))
+                .switchIfEmpty(Mono.error(() -> new UserAlreadyExistsException("Username already exists")))
+                .map(id -> new UserResponse(id, username));
+    }
+
+    /**
+     * Same single-statement insert as UserRepository#insertIfAbsent; empty if the name is
+     * taken. Ids come from users_seq, which Hibernate reserves in blocks of 50. Each
+     * nextval value is the boundary of a block no other caller gets, so using it
+     * directly can't collide with ids handed out by the servlet application.
+     */
+    private Mono<Long> insertIfAbsent(String username, String password) {
+        return databaseClient.sql("insert into users (id, username, password, token_version) "
+                        + "values (nextval('users_seq'), :username, :password, 0) "
+                        + "on conflict do nothing returning id")
+                .bind("username", username)
+                .bind("password", password)
+                .map(row -> row.get("id", Long.class))
+                .one();
+    }
+
+    public Mono<AuthResponse> login(LoginRequest loginRequest) {
+        return authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(
+                        UsernameNormalizer.normalize(loginRequest.getUsername()),
+                        loginRequest.getPassword()))
+                .onErrorMap(AuthenticationException.class,
+                        e -> new InvalidCredentialsException("Invalid username or password"))
+                .map(auth -> (UserPrincipal) auth.getPrincipal())
+                .flatMap(principal -> refreshTokenService.issueForLogin(principal.getUsername())
+                        .map(refreshToken -> new AuthResponse(
+                                jwtUtil.generateToken(principal),
+                                refreshToken,
+                                principal.getUsername(),
+                                ACCESS_TOKEN_EXPIRY_MS
+                        )));
+    }
+
+    public Mono<AuthResponse> refreshAccessToken(String refreshToken) {
+        VerifiedToken verified = jwtUtil.verifyRefreshToken(refreshToken);
+        if (verified == null || revocationService.isRevoked(verified)) {
+            return Mono.error(new InvalidTokenException("Invalid or expired refresh token"));
+        }
+
+        // Same order as UserService: the user is read fresh (current token version and role
+        // mask for the new access token) and checked before the refresh token is consumed
+        String username = UsernameNormalizer.normalize(verified.subject());
+        return userRepository.findByUsername(username)
+                .map(user -> roleRegistry.principal(user.toUsers()))
+                .filter(UserPrincipal::isEnabled)
+                .switchIfEmpty(Mono.error(() -> new InvalidTokenException("Invalid or expired refresh token")))
+                .flatMap(principal -> refreshTokenService.rotate(refreshToken, username)
+                        .map(newRefreshToken -> new AuthResponse(
+                                jwtUtil.generateToken(principal),
+                                newRefreshToken,
+                                username,
+                                ACCESS_TOKEN_EXPIRY_MS
+                        )));
+    }
+
+    public Mono<Void> logout(VerifiedToken accessToken) {
+        return Mono.fromRunnable(() -> {
+            if (accessToken != null) {
+                revocationService.revoke(accessToken);
+            }
+        });
+    }
+
+    public Mono<Void> logoutAll(String username) {
+        return Mono.fromRunnable(() -> {
+                    revocationService.revokeAllBefore(username, Instant.now());
+                    userDetailsService.evict(username);
+                })
+                .then(refreshTokenService.revokeAllForUser(username));
+    }
+}
@@ -0,0 +1,37 @@
+package com.garv.SpringSecEx.reactive;
+
+import com.garv.SpringSecEx.Entity.RefreshToken;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+
+/**
+ * R2DBC mapping of the refresh_tokens table owned by the {@link RefreshToken} JPA entity.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table("refresh_tokens")
+public class RefreshTokenRow {
+
+    @Id
+    private Long id;
+
+    private String tokenHash;
+
+    private String username;
+
+    private String familyId;
+
+    private Instant createdAt;
+
+    private Instant expiresAt;
+
+    private boolean revoked;
+
+    private Instant usedAt;
+}
@@ -0,0 +1,37 @@
+package com.garv.SpringSecEx.reactive;
+
+import com.garv.SpringSecEx.Entity.Users;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+
+/**
+ * R2DBC mapping of the users table owned by the {@link Users} JPA entity.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table("users")
+public class UserRow {
+
+    @Id
+    private Long id;
+
+    private String username;
+
+    private String password;
+
+    private int tokenVersion;
+
+    private Instant lockedUntil;
+
+    private long roleMask;
+
+    public Users toUsers() {
+        return new Users(id, username, password, tokenVersion, lockedUntil, roleMask);
+    }
+}
@@ -0,0 +1,7 @@
+-- The original users table, as ddl-auto=update created it. Every script is idempotent so
+-- databases that predate the migrations (baseline-on-migrate, version 0) run them too.
+create table if not exists users (
+    id       bigint generated by default as identity primary key,
+    username varchar(255),
+    password varchar(255)
+);
@@ -0,0 +1,71 @@
+-- Columns, sequence and tables added to the auth service since V1
+
+-- Token versions (stateless mode), progressive lockout, role bits
+alter table users add column if not exists token_version integer not null default 0;
+alter table users add column if not exists locked_until timestamp(6) with time zone;
+alter table users add column if not exists role_mask bigint not null default 1;
+alter table users alter column username set not null;
+
+-- Ids come from a sequence so inserts can be batched; Hibernate reserves 50 at a time
+-- (pooled optimizer: the sequence value is the top of the block), so move it past max(id),
+-- never backwards in case ddl-auto=update already created it
+create sequence if not exists users_seq increment by 50;
+select setval('users_seq', greatest((select coalesce(max(id), 0) + 50 from users),
+                                    (select last_value from users_seq)));
+
+-- Backs the lookup by username and insert ... on conflict registration.
+-- Fails if the table holds duplicate usernames; resolve those first.
+create unique index if not exists uk_users_username on users (username);
+
+-- Refresh token rotation: only hashes are stored, rotations of one login share a family
+create table if not exists refresh_tokens (
+    id         bigint generated by default as identity primary key,
+    token_hash varchar(64)  not null,
+    username   varchar(255) not null,
+    family_id  varchar(36)  not null,
+    created_at timestamp(6) with time zone,
+    expires_at timestamp(6) with time zone,
+    revoked    boolean      not null default false,
+    used_at    timestamp(6) with time zone
+);
+create unique index if not exists uk_refresh_tokens_token_hash on refresh_tokens (token_hash);
+create index if not exists idx_refresh_tokens_username on refresh_tokens (username);
+create index if not exists idx_refresh_tokens_family_id on refresh_tokens (family_id);
+create index if not exists idx_refresh_tokens_expires_at on refresh_tokens (expires_at);
+
+-- Shared revocation store (jwt.revocation.store=jpa)
+create table if not exists revoked_tokens (
+    jti        varchar(255) primary key,
+    expires_at timestamp(6) with time zone,
+    revoked_at timestamp(6) with time zone
+);
+create index if not exists idx_revoked_tokens_revoked_at on revoked_tokens (revoked_at);
+create index if not exists idx_revoked_tokens_expires_at on revoked_tokens (expires_at);
+
+create table if not exists user_revocations (
+    username       varchar(255) primary key,
+    revoked_before timestamp(6) with time zone,
+    updated_at     timestamp(6) with time zone
+);
+create index if not exists idx_user_revocations_updated_at on user_revocations (updated_at);
+
+-- Roles: one bit of users.role_mask each; RoleRegistry seeds the built-in ones
+create table if not exists roles (
+    id       bigint generated by default as identity primary key,
+    name     varchar(64) not null,
+    mask_bit integer     not null
+);
+create unique index if not exists uk_roles_name on roles (name);
+create unique index if not exists uk_roles_mask_bit on roles (mask_bit);
+
+create table if not exists role_includes (
+    role_id       bigint      not null references roles (id),
+    included_role varchar(64) not null,
+    primary key (role_id, included_role)
+);
+
+create table if not exists role_permissions (
+    role_id    bigint       not null references roles (id),
+    permission varchar(128) not null,
+    primary key (role_id, permission)
+);
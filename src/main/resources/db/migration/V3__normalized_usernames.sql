@@ -0,0 +1,47 @@
+-- Usernames are stored in UsernameNormalizer's form (trimmed, NFKC, lower case). Fold the rows
+-- created before that, and make names that only differ in case impossible at the database.
+--
+-- Where several rows fold to the same name, the oldest (lowest id) keeps it and the others are
+-- renamed to '<name>#<id>', under which they can still log in. Every row of such a group gets
+-- a new token version and loses its refresh tokens, so no outstanding token can resolve to a
+-- different account than it was issued for.
+
+create temporary table username_folds on commit drop as
+select id,
+       username,
+       lower(normalize(btrim(username), NFKC)) as folded,
+       row_number() over (partition by lower(normalize(btrim(username), NFKC)) order by id) as position,
+       count(*) over (partition by lower(normalize(btrim(username), NFKC))) as holders
+from users;
+
+update refresh_tokens t
+set revoked = true
+where t.revoked = false
+  and lower(normalize(btrim(t.username), NFKC)) in (select folded from username_folds where holders > 1);
+
+-- Renamed rows first, so the unique index never sees two rows with the kept name
+update users u
+set username      = f.folded || '#' || u.id,
+    token_version = u.token_version + 1
+from username_folds f
+where u.id = f.id
+  and f.position > 1;
+
+update users u
+set username      = f.folded,
+    token_version = u.token_version + case when f.holders > 1 then 1 else 0 end
+from username_folds f
+where u.id = f.id
+  and f.position = 1
+  and (u.username <> f.folded or f.holders > 1);
+
+-- Unambiguous rows keep their sessions: refresh tokens follow the new spelling
+update refresh_tokens t
+set username = f.folded
+from username_folds f
+where f.holders = 1
+  and t.username = f.username
+  and t.username <> f.folded;
+
+-- Registration inserts with "on conflict do nothing", which also honours this index
+create unique index if not exists uk_users_username_lower on users (lower(username));
@@ -0,0 +1,38 @@
+package com.garv.SpringSecEx.Conig;
+
+import com.garv.SpringSecEx.Repository.UserCredentials;
+import com.garv.SpringSecEx.dto.ApiResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthRuntimeHintsTests {
+
+	private final RuntimeHints hints = new RuntimeHints();
+
+	AuthRuntimeHintsTests() {
+		new AuthRuntimeHints().registerHints(hints, getClass().getClassLoader());
+	}
+
+	// registerTypeIfPresent skips unknown names, so a renamed jjwt class would only fail in the native image
+	@Test
+	void registersEveryJjwtTypeThatItLoadsByName() {
+		for (String type : AuthRuntimeHints.JJWT_TYPES) {
+			assertTrue(RuntimeHintsPredicates.reflection().onType(TypeReference.of(type))
+					.withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints), type);
+		}
+		assertTrue(RuntimeHintsPredicates.resource().forResource("META-INF/services/io.jsonwebtoken.io.Serializer").test(hints));
+		assertTrue(RuntimeHintsPredicates.resource().forResource("META-INF/services/io.jsonwebtoken.io.Deserializer").test(hints));
+	}
+
+	@Test
+	void registersApplicationTypesUsedReflectively() {
+		assertTrue(RuntimeHintsPredicates.reflection().onType(UserCredentials.class)
+				.withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints));
+		assertTrue(RuntimeHintsPredicates.reflection().onMethod(ApiResponse.class, "getMessage").test(hints));
+	}
+}
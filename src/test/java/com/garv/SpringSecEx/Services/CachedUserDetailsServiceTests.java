@@ -0,0 +1,127 @@
+package com.garv.SpringSecEx.Services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.garv.SpringSecEx.Entity.UserPrincipal;
+import com.garv.SpringSecEx.Entity.Users;
+import com.garv.SpringSecEx.event.UserChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CachedUserDetailsServiceTests {
+
+	private MyUserDetailsService delegate;
+	private InMemoryRemoteUserCache remoteCache;
+	private CachedUserDetailsService service;
+
+	@BeforeEach
+	void setUp() {
+		delegate = mock(MyUserDetailsService.class);
+		when(delegate.principalFor(any())).thenAnswer(invocation -> new UserPrincipal(invocation.<Users>getArgument(0)));
+		remoteCache = new InMemoryRemoteUserCache(new ObjectMapper().findAndRegisterModules(), Duration.ofMinutes(5));
+
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+		beanFactory.addBean("remoteUserCache", remoteCache);
+		service = new CachedUserDetailsService(delegate, beanFactory.getBeanProvider(RemoteUserCache.class),
+				true, Duration.ofMinutes(5), 100);
+	}
+
+	@Test
+	void repeatedLookupsHitTheDatabaseOnce() {
+		when(delegate.loadUserByUsername("alice")).thenReturn(new UserPrincipal(user("alice")));
+
+		service.loadUserByUsername("alice");
+		service.loadUserByUsername("alice");
+
+		verify(delegate, times(1)).loadUserByUsername("alice");
+		assertEquals(1, service.stats().hitCount());
+	}
+
+	@Test
+	void remoteTierIsUsedAfterLocalEviction() {
+		when(delegate.loadUserByUsername("alice")).thenReturn(new UserPrincipal(user("alice")));
+		service.loadUserByUsername("alice");
+
+		// Another node repopulates the shared tier after the eviction
+		service.evict("alice");
+		remoteCache.put(user("alice"));
+
+		assertEquals("alice", service.loadUserByUsername("alice").getUsername());
+		verify(delegate, times(1)).loadUserByUsername("alice");
+	}
+
+	@Test
+	void userChangedEventEvictsAllTiers() {
+		when(delegate.loadUserByUsername("alice")).thenReturn(new UserPrincipal(user("alice")));
+		service.loadUserByUsername("alice");
+
+		service.onUserChanged(new UserChangedEvent("alice"));
+
+		assertNull(remoteCache.get("alice"));
+		service.loadUserByUsername("alice");
+		verify(delegate, times(2)).loadUserByUsername("alice");
+	}
+
+	@Test
+	void loadsRacingTheTransactionDoNotKeepTheOldRow() throws Exception {
+		AtomicReference<Users> committed = new AtomicReference<>(user("alice"));
+		when(delegate.loadUserByUsername("alice")).thenAnswer(invocation -> new UserPrincipal(committed.get()));
+		Users locked = user("alice");
+		locked.setLockedUntil(Instant.now().plusSeconds(600));
+
+		ExecutorService otherRequest = Executors.newSingleThreadExecutor();
+		Runnable commit = () -> {
+			try {
+				// A request on another thread loads the committed row while the lock is in flight
+				otherRequest.submit(() -> service.loadUserByUsername("alice")).get();
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+			committed.set(locked);
+		};
+
+		try (AnnotationConfigApplicationContext context = CommitHookTransactionManager.context(commit)) {
+			context.registerBean(CachedUserDetailsService.class, () -> service);
+			context.refresh();
+
+			service.loadUserByUsername("alice");
+			new TransactionTemplate(context.getBean(PlatformTransactionManager.class))
+					.executeWithoutResult(status -> context.publishEvent(new UserChangedEvent("alice")));
+
+			assertNotNull(((UserPrincipal) service.loadUserByUsername("alice")).getUser().getLockedUntil());
+			assertNotNull(remoteCache.get("alice").getLockedUntil());
+		} finally {
+			otherRequest.shutdownNow();
+		}
+	}
+
+	@Test
+	void missesAreNotCached() {
+		when(delegate.loadUserByUsername("ghost")).thenThrow(new UsernameNotFoundException("User not found: ghost"));
+
+		assertThrows(UsernameNotFoundException.class, () -> service.loadUserByUsername("ghost"));
+		assertThrows(UsernameNotFoundException.class, () -> service.loadUserByUsername("ghost"));
+		verify(delegate, times(2)).loadUserByUsername("ghost");
+	}
+
+	private static Users user(String username) {
+		Users user = new Users();
+		user.setId(1L);
+		user.setUsername(username);
+		user.setPassword("$2a$12$hash");
+		return user;
+	}
+}
@@ -0,0 +1,55 @@
+package com.garv.SpringSecEx.Services;
+
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+/**
+ * Transaction manager without a resource that runs a hook in place of the commit, for tests
+ * of what other requests see while a change is still uncommitted.
+ */
+class CommitHookTransactionManager extends AbstractPlatformTransactionManager {
+
+	private final Runnable onCommit;
+
+	CommitHookTransactionManager(Runnable onCommit) {
+		this.onCommit = onCommit;
+	}
+
+	/**
+	 * @return context with transaction management on this manager, not yet refreshed
+	 */
+	static AnnotationConfigApplicationContext context(Runnable onCommit) {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.registerBean(PlatformTransactionManager.class, () -> new CommitHookTransactionManager(onCommit));
+		context.register(TransactionSupport.class);
+		return context;
+	}
+
+	@Override
+	protected Object doGetTransaction() {
+		return new Object();
+	}
+
+	@Override
+	protected void doBegin(Object transaction, TransactionDefinition definition) {
+	}
+
+	@Override
+	protected void doCommit(DefaultTransactionStatus status) {
+		onCommit.run();
+	}
+
+	@Override
+	protected void doRollback(DefaultTransactionStatus status) {
+	}
+
+	@Configuration
+	@EnableTransactionManagement
+	static class TransactionSupport {
+	}
+}
@@ -0,0 +1,83 @@
+package com.garv.SpringSecEx.Services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.garv.SpringSecEx.Utlity.VerifiedToken;
+import com.garv.SpringSecEx.event.InvalidationEvent;
+import com.garv.SpringSecEx.event.UserChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvalidationBusTests {
+
+	private final InProcessInvalidationTransport transport = new InProcessInvalidationTransport();
+	private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	// Two nodes sharing one transport; events published on node B are collected here
+	private final List<Object> nodeBEvents = new ArrayList<>();
+	private InvalidationBus nodeA;
+	private InvalidationBus nodeB;
+
+	@BeforeEach
+	void setUp() {
+		nodeA = new InvalidationBus(transport, event -> { }, objectMapper, new SimpleMeterRegistry());
+		nodeB = new InvalidationBus(transport, nodeBEvents::add, objectMapper, registry);
+		nodeA.start();
+		nodeB.start();
+	}
+
+	@Test
+	void revocationOnOneNodeReachesTheOther() {
+		StaticListableBeanFactory beans = new StaticListableBeanFactory();
+		beans.addBean("invalidationBus", nodeA);
+		TokenRevocationService revocationOnA = new TokenRevocationService(
+				beans.getBeanProvider(RevocationStore.class), beans.getBeanProvider(InvalidationBus.class),
+				Duration.ofDays(7), 1000);
+		TokenRevocationService revocationOnB = new TokenRevocationService(
+				beans.getBeanProvider(RevocationStore.class), Duration.ofDays(7), 1000);
+		VerifiedToken token = new VerifiedToken("jti-1", "alice", VerifiedToken.ACCESS,
+				Instant.now(), Instant.now().plusSeconds(3600), null, null);
+
+		revocationOnA.revoke(token);
+		nodeBEvents.forEach(event -> revocationOnB.onInvalidation((InvalidationEvent) event));
+
+		assertTrue(revocationOnB.isRevoked(token));
+		assertEquals(1, registry.get("auth.invalidation.received").tag("type", "token_revoked").counter().count());
+		assertEquals(1, registry.get("auth.invalidation.lag").timer().count());
+	}
+
+	@Test
+	void localUserChangesAreForwardedOnceAsRemoteEvents() {
+		nodeA.onUserChanged(new UserChangedEvent("alice"));
+
+		assertEquals(List.of(new UserChangedEvent("alice", true)), nodeBEvents);
+
+		// Node B republishing it locally must not send it around again
+		nodeB.onUserChanged(new UserChangedEvent("alice", true));
+		assertEquals(1, nodeBEvents.size());
+	}
+
+	@Test
+	void ownBroadcastsAreIgnored() {
+		nodeB.broadcast(InvalidationEvent.Type.USER_CUTOFF, "alice", Instant.now());
+
+		assertTrue(nodeBEvents.isEmpty());
+	}
+
+	@Test
+	void undecodableMessagesAreCountedAsDropped() {
+		transport.send("not json");
+
+		assertTrue(nodeBEvents.isEmpty());
+		assertEquals(1, registry.get("auth.invalidation.dropped").tag("reason", "decode_failed").counter().count());
+	}
+}
@@ -0,0 +1,50 @@
+package com.garv.SpringSecEx.Services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginRateLimiterTests {
+
+	@Test
+	void limitsEachIpToItsBurst() {
+		LoginRateLimiter limiter = new LoginRateLimiter(true, 3, 1, 100, 100, 1000);
+
+		for (int i = 0; i < 3; i++) {
+			assertEquals(0, limiter.tryAcquire("10.0.0.1", "user" + i));
+		}
+
+		long retryAfter = limiter.tryAcquire("10.0.0.1", "another");
+		assertTrue(retryAfter > 0 && retryAfter <= 60, "retry after " + retryAfter);
+		assertEquals(0, limiter.tryAcquire("10.0.0.2", "another"));
+	}
+
+	@Test
+	void limitsEachUsernameAcrossIps() {
+		LoginRateLimiter limiter = new LoginRateLimiter(true, 100, 100, 2, 1, 1000);
+
+		assertEquals(0, limiter.tryAcquire("10.0.0.1", "alice"));
+		assertEquals(0, limiter.tryAcquire("10.0.0.2", "alice"));
+
+		assertTrue(limiter.tryAcquire("10.0.0.3", "alice") > 0);
+		assertEquals(0, limiter.tryAcquire("10.0.0.3", "bob"));
+	}
+
+	@Test
+	void attemptsWithoutAUsernameOnlyCountAgainstTheIp() {
+		LoginRateLimiter limiter = new LoginRateLimiter(true, 100, 100, 1, 1, 1000);
+
+		assertEquals(0, limiter.tryAcquire("10.0.0.1", null));
+		assertEquals(0, limiter.tryAcquire("10.0.0.1", " "));
+		assertEquals(0, limiter.tryAcquire("10.0.0.1", null));
+	}
+
+	@Test
+	void disabledLimiterAllowsEverything() {
+		LoginRateLimiter limiter = new LoginRateLimiter(false, 1, 1, 1, 1, 1000);
+
+		for (int i = 0; i < 10; i++) {
+			assertEquals(0, limiter.tryAcquire("10.0.0.1", "alice"));
+		}
+	}
+}
@@ -0,0 +1,106 @@
+package com.garv.SpringSecEx.Services;
+
+import com.garv.SpringSecEx.Conig.PasswordConfig;
+import com.garv.SpringSecEx.Entity.Users;
+import com.garv.SpringSecEx.Repository.RoleRepository;
+import com.garv.SpringSecEx.Repository.UserCredentials;
+import com.garv.SpringSecEx.Repository.UserRepository;
+import com.garv.SpringSecEx.Utlity.BoundedPasswordEncoder;
+import com.garv.SpringSecEx.Utlity.DatabaseBulkhead;
+import com.garv.SpringSecEx.event.UserChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class MyUserDetailsServiceTests {
+
+	private final List<Object> events = new ArrayList<>();
+	private final Users stored = new Users(1L, "alice", null, 0, null, 1L);
+	private UserRepository userRepository;
+	private BoundedPasswordEncoder passwordEncoder;
+	private DaoAuthenticationProvider provider;
+
+	@BeforeEach
+	void setUp() {
+		userRepository = mock(UserRepository.class);
+		when(userRepository.findByUsername("alice")).thenReturn(stored);
+		when(userRepository.findCredentialsByUsername("alice")).thenAnswer(invocation -> new UserCredentials(
+				stored.getUsername(), stored.getPassword(), stored.getTokenVersion(), null, stored.getRoleMask()));
+		when(userRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+		MyUserDetailsService service = new MyUserDetailsService(userRepository, events::add,
+				new DatabaseBulkhead(false, 10, Duration.ofSeconds(2), new SimpleMeterRegistry()),
+				new RoleRegistry(mock(RoleRepository.class)), new ReadYourWrites(false, Duration.ofSeconds(5)));
+		passwordEncoder = new PasswordConfig().passwordEncoder("bcrypt", 12, 310000, 1, 4,
+				Duration.ofSeconds(30), new SimpleMeterRegistry());
+
+		// Wired like SecurityConfig#authenticationProvider
+		provider = new DaoAuthenticationProvider();
+		provider.setPasswordEncoder(passwordEncoder);
+		provider.setUserDetailsService(service);
+		provider.setUserDetailsPasswordService(service);
+	}
+
+	@AfterEach
+	void tearDown() {
+		passwordEncoder.destroy();
+	}
+
+	@Test
+	void unprefixedLegacyHashIsUpgradedOnLogin() {
+		stored.setPassword(new BCryptPasswordEncoder(12).encode("secret"));
+
+		login("secret");
+
+		assertTrue(stored.getPassword().startsWith("{bcrypt}$2a$12$"));
+		assertTrue(passwordEncoder.matches("secret", stored.getPassword()));
+		assertEquals(List.of(new UserChangedEvent("alice")), events);
+	}
+
+	@Test
+	void lowCostHashIsUpgradedOnLogin() {
+		stored.setPassword("{bcrypt}" + new BCryptPasswordEncoder(10).encode("secret"));
+
+		login("secret");
+
+		assertTrue(stored.getPassword().startsWith("{bcrypt}$2a$12$"));
+		assertEquals(List.of(new UserChangedEvent("alice")), events);
+	}
+
+	@Test
+	void currentHashIsLeftAlone() {
+		stored.setPassword(passwordEncoder.encode("secret"));
+
+		login("secret");
+
+		verify(userRepository, never()).save(any());
+		assertTrue(events.isEmpty());
+	}
+
+	@Test
+	void failedLoginDoesNotUpgrade() {
+		String legacy = new BCryptPasswordEncoder(10).encode("secret");
+		stored.setPassword(legacy);
+
+		assertThrows(BadCredentialsException.class, () -> login("wrong"));
+		assertEquals(legacy, stored.getPassword());
+		assertTrue(events.isEmpty());
+	}
+
+	private void login(String password) {
+		provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("alice", password));
+	}
+}
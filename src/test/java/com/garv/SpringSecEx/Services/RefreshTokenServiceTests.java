@@ -0,0 +1,93 @@
+package com.garv.SpringSecEx.Services;
+
+import com.garv.SpringSecEx.Entity.RefreshToken;
+import com.garv.SpringSecEx.Repository.RefreshTokenRepository;
+import com.garv.SpringSecEx.Utlity.JwtUtil;
+import com.garv.SpringSecEx.exception.InvalidTokenException;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RefreshTokenServiceTests {
+
+	private final RefreshTokenRepository repository = mock(RefreshTokenRepository.class);
+	private final RefreshTokenService service = new RefreshTokenService(
+			repository, new JwtUtil("test-secret-key-that-is-at-least-32-bytes-long"), 10, 2);
+
+	// Saved rows by hash, standing in for the table
+	private final Map<String, RefreshToken> rows = new HashMap<>();
+
+	RefreshTokenServiceTests() {
+		when(repository.save(any(RefreshToken.class))).thenAnswer(invocation -> {
+			RefreshToken token = invocation.getArgument(0);
+			token.setId((long) rows.size() + 1);
+			rows.put(token.getTokenHash(), token);
+			return token;
+		});
+		when(repository.findByTokenHash(anyString())).thenAnswer(invocation -> rows.get(invocation.<String>getArgument(0)));
+		when(repository.markUsed(anyLong(), any())).thenAnswer(invocation -> {
+			RefreshToken token = rows.values().stream()
+					.filter(row -> row.getId().equals(invocation.getArgument(0)))
+					.findFirst().orElseThrow();
+			if (token.isRevoked()) {
+				return 0;
+			}
+			token.setRevoked(true);
+			return 1;
+		});
+	}
+
+	@Test
+	void rotationIssuesANewTokenInTheSameFamily() {
+		String first = service.issueForLogin("alice");
+
+		String second = service.rotate(first, "alice");
+
+		assertNotEquals(first, second);
+		List<RefreshToken> saved = List.copyOf(rows.values());
+		assertEquals(2, saved.size());
+		assertEquals(saved.get(0).getFamilyId(), saved.get(1).getFamilyId());
+		verify(repository, never()).revokeFamily(anyString());
+	}
+
+	@Test
+	void reusingARotatedTokenRevokesTheFamily() {
+		String first = service.issueForLogin("alice");
+		service.rotate(first, "alice");
+		String familyId = rows.values().iterator().next().getFamilyId();
+
+		assertThrows(InvalidTokenException.class, () -> service.rotate(first, "alice"));
+
+		verify(repository).revokeFamily(familyId);
+	}
+
+	@Test
+	void rejectsUnknownTokensAndOtherUsersTokens() {
+		String token = service.issueForLogin("alice");
+
+		assertThrows(InvalidTokenException.class, () -> service.rotate(token, "bob"));
+		assertThrows(InvalidTokenException.class, () -> service.rotate("unknown", "alice"));
+		verify(repository, never()).revokeFamily(anyString());
+	}
+
+	@Test
+	void purgeDeletesInBatchesUntilAShortOne() {
+		when(repository.findExpiredIds(any(Instant.class), any(Pageable.class)))
+				.thenReturn(List.of(1L, 2L), List.of(3L));
+
+		service.purgeExpired();
+
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<List<Long>> deleted = ArgumentCaptor.forClass(List.class);
+		verify(repository, times(2)).deleteAllByIdInBatch(deleted.capture());
+		assertEquals(List.of(List.of(1L, 2L), List.of(3L)), deleted.getAllValues());
+	}
+}
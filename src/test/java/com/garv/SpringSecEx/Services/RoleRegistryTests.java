@@ -0,0 +1,92 @@
+package com.garv.SpringSecEx.Services;
+
+import com.garv.SpringSecEx.Entity.Role;
+import com.garv.SpringSecEx.Repository.RoleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RoleRegistryTests {
+
+	private final List<Role> stored = new ArrayList<>();
+	private RoleRepository roleRepository;
+	private RoleRegistry registry;
+
+	@BeforeEach
+	void setUp() {
+		roleRepository = mock(RoleRepository.class);
+		when(roleRepository.findAll()).thenAnswer(invocation -> List.copyOf(stored));
+		when(roleRepository.findByName(anyString())).thenAnswer(invocation -> stored.stream()
+				.filter(role -> role.getName().equals(invocation.getArgument(0))).findFirst().orElse(null));
+		// Like "on conflict do nothing": a name or bit that is already taken inserts nothing
+		when(roleRepository.insertIfAbsent(anyString(), anyInt(), anyCollection(), anyCollection()))
+				.thenAnswer(invocation -> {
+					String name = invocation.getArgument(0);
+					int bit = invocation.getArgument(1);
+					if (stored.stream().anyMatch(role -> role.getName().equals(name) || role.getBit() == bit)) {
+						return false;
+					}
+					stored.add(role(name, bit, Set.copyOf(invocation.<Collection<String>>getArgument(2)),
+							Set.copyOf(invocation.<Collection<String>>getArgument(3))));
+					return true;
+				});
+		registry = new RoleRegistry(roleRepository);
+	}
+
+	@Test
+	void seedsTheBuiltInRolesOnAnEmptyDatabase() {
+		registry.init();
+
+		assertEquals(3, stored.size());
+		assertEquals(0b111, registry.maskOf(List.of(RoleRegistry.USER, RoleRegistry.ADMIN, RoleRegistry.GATEWAY)));
+		assertEquals(Set.of("ROLE_ADMIN", "ROLE_USER", "users:import", "users:roles"),
+				AuthorityUtils.authorityListToSet(registry.authoritiesFor(0b10))); // ADMIN includes USER
+	}
+
+	@Test
+	void rolesSeededByAnotherNodeAreLoadedNotDuplicated() {
+		// Another node inserts ADMIN between this node's lookup and its insert
+		doAnswer(invocation -> {
+			stored.add(role(RoleRegistry.ADMIN, 1, Set.of(RoleRegistry.USER), Set.of("users:import", "users:roles")));
+			return false;
+		}).when(roleRepository).insertIfAbsent(eq(RoleRegistry.ADMIN), anyInt(), anyCollection(), anyCollection());
+
+		registry.init();
+
+		assertEquals(3, stored.size());
+		assertEquals(0b10, registry.maskOf(List.of(RoleRegistry.ADMIN)));
+	}
+
+	@Test
+	void customRoleHoldingABuiltInBitIsKept() {
+		stored.add(role("SUPPORT", 2, Set.of(), Set.of("users:read")));
+
+		registry.init();
+
+		verify(roleRepository, never())
+				.insertIfAbsent(eq(RoleRegistry.GATEWAY), anyInt(), anyCollection(), anyCollection());
+		assertEquals(0b100, registry.maskOf(List.of("SUPPORT")));
+		assertThrows(IllegalArgumentException.class, () -> registry.maskOf(List.of(RoleRegistry.GATEWAY)));
+	}
+
+	@Test
+	void unknownRolesHaveNoMask() {
+		registry.init();
+
+		assertThrows(IllegalArgumentException.class, () -> registry.maskOf(List.of(RoleRegistry.USER, "ROOT")));
+	}
+
+	private static Role role(String name, int bit, Set<String> includes, Set<String> permissions) {
+		return new Role((long) bit + 1, name, bit, new HashSet<>(includes), new HashSet<>(permissions));
+	}
+}
@@ -0,0 +1,150 @@
+package com.garv.SpringSecEx.Services;
+
+import com.garv.SpringSecEx.Entity.UserPrincipal;
+import com.garv.SpringSecEx.Entity.Users;
+import com.garv.SpringSecEx.Repository.RoleRepository;
+import com.garv.SpringSecEx.Repository.UserRepository;
+import com.garv.SpringSecEx.Utlity.AuthMetrics;
+import com.garv.SpringSecEx.Utlity.InvalidTokenReason;
+import com.garv.SpringSecEx.Utlity.JwtUtil;
+import com.garv.SpringSecEx.Utlity.VerifiedTokenCache;
+import com.garv.SpringSecEx.dto.TokenIntrospection;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class TokenIntrospectionServiceTests {
+
+	private final JwtUtil jwtUtil = new JwtUtil("x".repeat(32));
+	private final RoleRegistry roleRegistry = new RoleRegistry(mock(RoleRepository.class));
+	private final Map<String, UserDetails> users = new HashMap<>();
+	private TokenRevocationService revocationService;
+	private UserRepository userRepository;
+	private TokenIntrospectionService service;
+
+	@BeforeEach
+	void setUp() {
+		revocationService = new TokenRevocationService(
+				new StaticListableBeanFactory().getBeanProvider(RevocationStore.class), Duration.ofDays(7), 1000);
+		userRepository = mock(UserRepository.class);
+		when(userRepository.findTokenVersionByUsername(anyString())).thenReturn(0);
+		users.put("alice", roleRegistry.principal(user("alice")));
+		service = service(false);
+	}
+
+	private TokenIntrospectionService service(boolean stateless) {
+		UserDetailsService userDetailsService = username -> {
+			UserDetails user = users.get(username);
+			if (user == null) {
+				throw new UsernameNotFoundException("User not found");
+			}
+			return user;
+		};
+		AccessTokenPolicy policy = new AccessTokenPolicy(revocationService,
+				new TokenVersionRegistry(userRepository, event -> { }, Duration.ofMinutes(5), 1000),
+				roleRegistry, userDetailsService, stateless);
+		return new TokenIntrospectionService(new VerifiedTokenCache(jwtUtil, true, 1000), policy,
+				new AuthMetrics(new SimpleMeterRegistry()), 100, Duration.ofSeconds(30), 2);
+	}
+
+	@Test
+	void reportsSubjectTypeExpiryAndAuthorities() {
+		String token = jwtUtil.generateToken(new UserPrincipal(user("alice")));
+
+		TokenIntrospection result = service.introspect(List.of(token)).get(0);
+
+		assertTrue(result.isActive());
+		assertEquals("alice", result.getSubject());
+		assertEquals("access", result.getType());
+		assertNotNull(result.getExpiresAt());
+		assertEquals(List.of("ROLE_USER"), result.getAuthorities());
+		assertEquals(30, result.getCacheSeconds());
+	}
+
+	@Test
+	void rejectsInvalidRevokedAndStaleTokens() {
+		String revoked = jwtUtil.generateToken(new UserPrincipal(user("alice")));
+		revocationService.revoke(jwtUtil.verify(revoked));
+		Users outdated = user("alice");
+		outdated.setTokenVersion(-1);
+
+		List<TokenIntrospection> results = service.introspect(List.of(
+				"not-a-token",
+				revoked,
+				jwtUtil.generateToken(new UserPrincipal(outdated)),
+				jwtUtil.generateToken("ghost")));
+
+		assertEquals(List.of(false, false, false, false), results.stream().map(TokenIntrospection::isActive).toList());
+		assertEquals("revoked", results.get(1).getReason());
+		assertEquals("stale_version", results.get(2).getReason());
+		assertEquals("unknown_user", results.get(3).getReason());
+		assertEquals(0, results.get(3).getCacheSeconds()); // the user may be created any moment
+	}
+
+	@Test
+	void agreesWithJwtFilterOnDisabledAndMismatchedUsers() {
+		users.put("bob", User.withUsername("bob").password("{noop}secret").roles("USER").disabled(true).build());
+		users.put("carol", roleRegistry.principal(user("Carol"))); // stored under another spelling
+
+		List<TokenIntrospection> results = service.introspect(List.of(
+				jwtUtil.generateToken(new UserPrincipal(user("bob"))),
+				jwtUtil.generateToken(new UserPrincipal(user("carol")))));
+
+		assertEquals(InvalidTokenReason.ACCOUNT_DISABLED.tag(), results.get(0).getReason());
+		assertEquals(InvalidTokenReason.INVALID.tag(), results.get(1).getReason());
+	}
+
+	@Test
+	void authoritiesComeFromTheDatabaseUnlessStateless() {
+		Users promoted = user("alice");
+		promoted.setRoleMask(3L); // the token claims ADMIN, the stored user only has USER
+		String token = jwtUtil.generateToken(new UserPrincipal(promoted));
+
+		assertEquals(List.of("ROLE_USER"), service.introspect(List.of(token)).get(0).getAuthorities());
+		assertTrue(service(true).introspect(List.of(token)).get(0).getAuthorities().contains("ROLE_ADMIN"));
+	}
+
+	@Test
+	void refreshTokensAreNeverActive() {
+		TokenIntrospection result = service.introspect(List.of(jwtUtil.generateRefreshToken("alice"))).get(0);
+
+		assertFalse(result.isActive());
+		assertEquals(InvalidTokenReason.WRONG_TYPE.tag(), result.getReason());
+		assertNull(result.getAuthorities());
+	}
+
+	@Test
+	void keepsTheOrderOfLargeBatches() {
+		List<String> tokens = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			tokens.add(i % 2 == 0 ? jwtUtil.generateToken(new UserPrincipal(user("alice"))) : "invalid-" + i);
+		}
+
+		List<TokenIntrospection> results = service.introspect(tokens);
+
+		for (int i = 0; i < tokens.size(); i++) {
+			assertEquals(i % 2 == 0, results.get(i).isActive(), "token " + i);
+		}
+	}
+
+	private static Users user(String username) {
+		Users user = new Users();
+		user.setUsername(username);
+		return user;
+	}
+}
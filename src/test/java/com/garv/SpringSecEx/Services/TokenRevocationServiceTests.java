@@ -0,0 +1,54 @@
+package com.garv.SpringSecEx.Services;
+
+import com.garv.SpringSecEx.Utlity.VerifiedToken;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenRevocationServiceTests {
+
+	private final TokenRevocationService service = new TokenRevocationService(
+			new StaticListableBeanFactory().getBeanProvider(RevocationStore.class), Duration.ofDays(7), 1000);
+
+	@Test
+	void revokedTokenIsRejectedAndOthersAreNot() {
+		VerifiedToken revoked = token("jti-1", "alice", Instant.now());
+		VerifiedToken other = token("jti-2", "alice", Instant.now());
+
+		service.revoke(revoked);
+
+		assertTrue(service.isRevoked(revoked));
+		assertFalse(service.isRevoked(other));
+	}
+
+	@Test
+	void revokeAllBeforeCoversTokensIssuedUpToThatSecond() {
+		Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+		service.revokeAllBefore("alice", now);
+
+		assertTrue(service.isRevoked(token("a", "alice", now.minusSeconds(60))));
+		assertTrue(service.isRevoked(token("b", "alice", now)));
+		assertFalse(service.isRevoked(token("c", "alice", now.plusSeconds(2))));
+		assertFalse(service.isRevoked(token("d", "bob", now.minusSeconds(60))));
+	}
+
+	@Test
+	void purgeDropsExpiredRevocationsOnly() {
+		service.applyTokenRevocation("live", Instant.now().plusSeconds(60));
+		service.applyTokenRevocation("already-expired", Instant.now().minusSeconds(1));
+
+		service.purgeExpired();
+
+		assertEquals(1, service.revokedTokenCount());
+		assertTrue(service.isRevoked(token("live", "alice", Instant.now())));
+	}
+
+	private static VerifiedToken token(String jti, String subject, Instant issuedAt) {
+		return new VerifiedToken(jti, subject, VerifiedToken.ACCESS, issuedAt, issuedAt.plusSeconds(3600), 1L, 0);
+	}
+}
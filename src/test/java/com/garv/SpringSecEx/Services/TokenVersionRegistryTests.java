@@ -0,0 +1,145 @@
+package com.garv.SpringSecEx.Services;
+
+import com.garv.SpringSecEx.Repository.UserRepository;
+import com.garv.SpringSecEx.event.InvalidationGapEvent;
+import com.garv.SpringSecEx.event.UserChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class TokenVersionRegistryTests {
+
+	private final Map<String, Integer> stored = new HashMap<>();
+	private final List<Object> events = new ArrayList<>();
+	private UserRepository userRepository;
+	private TokenVersionRegistry registry;
+	private TokenVersionRegistry transactional;
+
+	@BeforeEach
+	void setUp() {
+		stored.put("alice", 0);
+		userRepository = mock(UserRepository.class);
+		when(userRepository.findTokenVersionByUsername(anyString()))
+				.thenAnswer(invocation -> stored.get(invocation.<String>getArgument(0)));
+		when(userRepository.incrementTokenVersion(anyString())).thenAnswer(invocation -> {
+			String username = invocation.getArgument(0);
+			return stored.computeIfPresent(username, (key, version) -> version + 1) != null ? 1 : 0;
+		});
+		// Outside a transaction the listener runs as soon as the event is published
+		registry = new TokenVersionRegistry(userRepository, event -> {
+			events.add(event);
+			if (event instanceof UserChangedEvent changed) {
+				registry.onUserChanged(changed);
+			}
+		}, Duration.ofMinutes(5), 1000);
+	}
+
+	@Test
+	void readsEachUsersVersionOnce() {
+		assertTrue(registry.isCurrent("alice", 0));
+		assertFalse(registry.isCurrent("alice", 1));
+		assertTrue(registry.isCurrent("alice", 0));
+
+		verify(userRepository, times(1)).findTokenVersionByUsername("alice");
+	}
+
+	@Test
+	void unknownUsersAreNeverCurrent() {
+		assertFalse(registry.isCurrent("nobody", 0));
+		assertFalse(registry.isCurrent("nobody", -1));
+	}
+
+	@Test
+	void unknownUsersAreCachedUntilTheyAreCreated() {
+		assertFalse(registry.isCurrent("deleted", 0));
+		assertFalse(registry.isCurrent("deleted", 0));
+		verify(userRepository, times(1)).findTokenVersionByUsername("deleted");
+
+		stored.put("deleted", 0); // registered again, or imported
+		registry.onUserChanged(new UserChangedEvent("deleted"));
+
+		assertTrue(registry.isCurrent("deleted", 0));
+	}
+
+	@Test
+	void revokeAllEndsOutstandingTokens() {
+		assertTrue(registry.isCurrent("alice", 0));
+
+		registry.revokeAll("alice");
+
+		assertFalse(registry.isCurrent("alice", 0));
+		assertTrue(registry.isCurrent("alice", 1));
+		assertEquals(List.of(new UserChangedEvent("alice")), events);
+	}
+
+	@Test
+	void lookupsRacingTheTransactionDoNotKeepTheOldVersion() throws Exception {
+		Map<String, Integer> pending = new HashMap<>();
+		when(userRepository.incrementTokenVersion(anyString())).thenAnswer(invocation -> {
+			pending.put(invocation.getArgument(0), stored.get(invocation.<String>getArgument(0)) + 1);
+			return 1;
+		});
+		ExecutorService otherRequest = Executors.newSingleThreadExecutor();
+		AtomicBoolean currentDuringCommit = new AtomicBoolean();
+		Runnable commit = () -> {
+			try {
+				// A request on another thread reads the committed row while the update is in flight
+				currentDuringCommit.set(otherRequest.submit(() -> transactional.isCurrent("alice", 0)).get());
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+			stored.putAll(pending);
+		};
+
+		try (AnnotationConfigApplicationContext context = CommitHookTransactionManager.context(commit)) {
+			context.registerBean(TokenVersionRegistry.class, () -> new TokenVersionRegistry(
+					userRepository, context, Duration.ofMinutes(5), 1000));
+			context.refresh();
+			transactional = context.getBean(TokenVersionRegistry.class);
+
+			assertTrue(transactional.isCurrent("alice", 0));
+			transactional.revokeAll("alice");
+
+			assertTrue(currentDuringCommit.get());
+			assertFalse(transactional.isCurrent("alice", 0));
+			assertTrue(transactional.isCurrent("alice", 1));
+		} finally {
+			otherRequest.shutdownNow();
+		}
+	}
+
+	@Test
+	void changesFromOtherNodesDropTheCachedVersion() {
+		assertTrue(registry.isCurrent("alice", 0));
+		stored.put("alice", 1);
+
+		assertTrue(registry.isCurrent("alice", 0)); // still cached
+		registry.onUserChanged(new UserChangedEvent("alice", true));
+		assertFalse(registry.isCurrent("alice", 0));
+
+		stored.put("alice", 2);
+		registry.onInvalidationGap(new InvalidationGapEvent("reconnected"));
+		assertTrue(registry.isCurrent("alice", 2));
+	}
+
+	@Test
+	void rememberedVersionsSkipTheDatabase() {
+		registry.remember("alice", 0);
+
+		assertTrue(registry.isCurrent("alice", 0));
+		verify(userRepository, never()).findTokenVersionByUsername(anyString());
+	}
+}
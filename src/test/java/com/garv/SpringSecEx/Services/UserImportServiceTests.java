@@ -0,0 +1,149 @@
+package com.garv.SpringSecEx.Services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.garv.SpringSecEx.Entity.Users;
+import com.garv.SpringSecEx.Repository.UserRepository;
+import com.garv.SpringSecEx.dto.BulkRegisterResponse;
+import com.garv.SpringSecEx.dto.ImportEvent;
+import com.garv.SpringSecEx.dto.ImportUserRow;
+import com.garv.SpringSecEx.event.UserChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class UserImportServiceTests {
+
+	private UserRepository userRepository;
+	private UserImportService service;
+	private final List<Users> saved = new ArrayList<>();
+	private final List<Object> events = new ArrayList<>();
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		userRepository = mock(UserRepository.class);
+		when(userRepository.findExistingUsernames(anyCollection())).thenAnswer(invocation -> {
+			Collection<String> usernames = invocation.getArgument(0);
+			return usernames.stream()
+					.filter(username -> username.equals("taken")
+							|| saved.stream().anyMatch(user -> user.getUsername().equals(username)))
+					.toList();
+		});
+		when(userRepository.saveAll(anyList())).thenAnswer(invocation -> {
+			saved.addAll(invocation.getArgument(0));
+			return invocation.getArgument(0);
+		});
+		service = new UserImportService(userRepository, events::add, new BCryptPasswordEncoder(4),
+				mock(PlatformTransactionManager.class), new ObjectMapper(), 2, 2);
+	}
+
+	@AfterEach
+	void tearDown() {
+		service.destroy();
+	}
+
+	@Test
+	void registerAllHashesPasswordsAndReportsRejectedRows() {
+		BulkRegisterResponse result = service.registerAll(List.of(
+				new ImportUserRow("alice", "secret", null),
+				new ImportUserRow("taken", "secret", null),
+				new ImportUserRow("alice", "again", null),
+				new ImportUserRow("bob", null, "{bcrypt}$2a$04$abcdefghijklmnopqrstuv"),
+				new ImportUserRow("", "secret", null)
+		));
+
+		assertEquals(2, result.getCreated());
+		assertEquals(3, result.getFailed());
+		assertEquals(List.of(2L, 3L, 5L), result.getErrors().stream().map(ImportEvent::getLine).sorted().toList());
+
+		Users alice = saved.stream().filter(user -> user.getUsername().equals("alice")).findFirst().orElseThrow();
+		assertTrue(new BCryptPasswordEncoder().matches("secret", alice.getPassword()));
+		Users bob = saved.stream().filter(user -> user.getUsername().equals("bob")).findFirst().orElseThrow();
+		assertEquals("{bcrypt}$2a$04$abcdefghijklmnopqrstuv", bob.getPassword());
+		assertEquals(List.of(new UserChangedEvent("alice"), new UserChangedEvent("bob")), events);
+	}
+
+	@Test
+	void hashingFailuresAreReportedPerRow() {
+		BCryptPasswordEncoder encoder = spy(new BCryptPasswordEncoder(4));
+		doThrow(new IllegalArgumentException("password cannot be more than 72 bytes")).when(encoder).encode("rejected");
+		service.destroy();
+		service = new UserImportService(userRepository, events::add, encoder,
+				mock(PlatformTransactionManager.class), new ObjectMapper(), 10, 2);
+
+		BulkRegisterResponse result = service.registerAll(List.of(
+				new ImportUserRow("frank", "secret", null),
+				new ImportUserRow("grace", "rejected", null),
+				new ImportUserRow("heidi", "secret", null)
+		));
+
+		assertEquals(2, result.getCreated());
+		assertEquals(1, result.getFailed());
+		assertEquals(2L, result.getErrors().get(0).getLine());
+		assertEquals("Password could not be hashed", result.getErrors().get(0).getMessage());
+		assertEquals(List.of("frank", "heidi"), saved.stream().map(Users::getUsername).sorted().toList());
+	}
+
+	@Test
+	void existingUsernamesAreCheckedOncePerChunk() {
+		service.registerAll(List.of(
+				new ImportUserRow("a", "x", null),
+				new ImportUserRow("b", "x", null),
+				new ImportUserRow("c", "x", null)
+		));
+
+		verify(userRepository, times(2)).findExistingUsernames(anyCollection());
+		verify(userRepository, never()).findByUsername(any());
+	}
+
+	@Test
+	void csvImportStreamsProgressAndErrors() throws Exception {
+		String csv = """
+				username,password
+				carol,secret
+				"dave, jr",secret
+				taken,secret
+				broken
+				""";
+		List<ImportEvent> events = new ArrayList<>();
+
+		ImportEvent done = service.importStream(
+				new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), true, events::add);
+
+		assertEquals(4, done.getProcessed());
+		assertEquals(2, done.getCreated());
+		assertEquals(2, done.getFailed());
+		assertTrue(saved.stream().anyMatch(user -> user.getUsername().equals("dave, jr")));
+		assertEquals(2, events.stream().filter(event -> ImportEvent.PROGRESS.equals(event.getType())).count());
+		assertEquals(List.of(4L, 5L), events.stream()
+				.filter(event -> ImportEvent.ERROR.equals(event.getType()))
+				.map(ImportEvent::getLine)
+				.sorted()
+				.toList());
+	}
+
+	@Test
+	void ndjsonImportRejectsMalformedLines() throws Exception {
+		String ndjson = "{\"username\":\"erin\",\"password\":\"secret\"}\nnot json\n";
+		List<ImportEvent> events = new ArrayList<>();
+
+		ImportEvent done = service.importStream(
+				new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), false, events::add);
+
+		assertEquals(1, done.getCreated());
+		assertTrue(events.stream().anyMatch(event -> "Malformed JSON".equals(event.getMessage())));
+	}
+}
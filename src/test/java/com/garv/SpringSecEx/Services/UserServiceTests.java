@@ -0,0 +1,87 @@
+package com.garv.SpringSecEx.Services;
+
+import com.garv.SpringSecEx.Repository.RoleRepository;
+import com.garv.SpringSecEx.Repository.UserRepository;
+import com.garv.SpringSecEx.exception.UnknownRoleException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UserServiceTests {
+
+	private static final long ADMIN_BIT = 0b10;
+
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final TokenVersionRegistry tokenVersionRegistry = mock(TokenVersionRegistry.class);
+	private final UserService service = new UserService();
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(service, "userRepository", userRepository);
+		ReflectionTestUtils.setField(service, "tokenVersionRegistry", tokenVersionRegistry);
+		ReflectionTestUtils.setField(service, "roleRegistry", new RoleRegistry(mock(RoleRepository.class)));
+		ReflectionTestUtils.setField(service, "bootstrapAdminUsername", "Root");
+	}
+
+	@Test
+	void bootstrapGrantsAdminWhileNoneExists() {
+		when(userRepository.existsWithAnyRole(ADMIN_BIT)).thenReturn(false);
+		when(userRepository.addRoles("root", ADMIN_BIT)).thenReturn(1);
+
+		service.bootstrapAdmin();
+
+		verify(userRepository).addRoles("root", ADMIN_BIT); // adds the bit, keeps the other roles
+		verify(tokenVersionRegistry).revokeAll("root");
+	}
+
+	@Test
+	void bootstrapDoesNothingOnceAnAdminExists() {
+		when(userRepository.existsWithAnyRole(ADMIN_BIT)).thenReturn(true);
+
+		service.bootstrapAdmin();
+
+		verify(userRepository, never()).addRoles(anyString(), anyLong());
+		verifyNoInteractions(tokenVersionRegistry);
+	}
+
+	@Test
+	void bootstrapWaitsForTheUserToRegister() {
+		when(userRepository.addRoles("root", ADMIN_BIT)).thenReturn(0);
+
+		service.bootstrapAdmin();
+
+		verifyNoInteractions(tokenVersionRegistry);
+	}
+
+	@Test
+	void bootstrapIsOffWithoutAUsername() {
+		ReflectionTestUtils.setField(service, "bootstrapAdminUsername", " ");
+
+		service.bootstrapAdmin();
+
+		verifyNoInteractions(userRepository, tokenVersionRegistry);
+	}
+
+	@Test
+	void assigningAnUnknownRoleChangesNothing() {
+		assertThrows(UnknownRoleException.class, () -> service.assignRoles("alice", List.of("USER", "ROOT")));
+
+		verify(userRepository, never()).updateRoleMask(anyString(), anyLong());
+		verifyNoInteractions(tokenVersionRegistry);
+	}
+
+	@Test
+	void assigningRolesReplacesTheMaskAndRevokesTokens() {
+		when(userRepository.updateRoleMask("alice", 0b11)).thenReturn(1);
+
+		service.assignRoles("Alice", List.of("USER", "ADMIN"));
+
+		verify(tokenVersionRegistry).revokeAll("alice");
+	}
+}
@@ -0,0 +1,58 @@
+package com.garv.SpringSecEx.Utlity;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthMetricsTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final AuthMetrics authMetrics = new AuthMetrics(registry);
+
+	@Test
+	void serviceTimersAreTaggedByOutcome() {
+		assertEquals("ok", authMetrics.timeService("login", () -> "ok"));
+		assertEquals("ok", authMetrics.timeService("login", () -> "ok"));
+		assertThrows(IllegalStateException.class, () -> authMetrics.timeService("login", () -> {
+			throw new IllegalStateException("boom");
+		}));
+
+		assertEquals(2, timer("login", "success").count());
+		assertEquals(1, timer("login", "failure").count());
+	}
+
+	@Test
+	void serviceTimersAreRegisteredOncePerOperation() {
+		authMetrics.timeService("refresh", () -> null);
+		Timer success = timer("refresh", "success");
+
+		authMetrics.timeService("refresh", () -> null);
+
+		assertSame(success, timer("refresh", "success"));
+		assertEquals(2, registry.find("auth.service").tag("operation", "refresh").timers().size());
+	}
+
+	@Test
+	void invalidTokensAreCountedByReason() {
+		authMetrics.invalidToken(InvalidTokenReason.EXPIRED);
+		authMetrics.invalidToken(InvalidTokenReason.EXPIRED);
+
+		assertEquals(2, registry.get("auth.token.invalid").tag("reason", InvalidTokenReason.EXPIRED.tag()).counter().count());
+	}
+
+	@Test
+	void recordPhaseReturnsTheNextStart() {
+		long start = System.nanoTime();
+
+		long next = authMetrics.recordPhase(AuthMetrics.FilterPhase.VERIFY, start);
+
+		assertTrue(next >= start);
+		assertEquals(1, registry.get("auth.filter.phase").tag("phase", "verify").timer().count());
+	}
+
+	private Timer timer(String operation, String outcome) {
+		return registry.get("auth.service").tag("operation", operation).tag("outcome", outcome).timer();
+	}
+}
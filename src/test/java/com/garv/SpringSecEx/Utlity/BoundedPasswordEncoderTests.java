@@ -0,0 +1,96 @@
+package com.garv.SpringSecEx.Utlity;
+
+import com.garv.SpringSecEx.Conig.PasswordConfig;
+import com.garv.SpringSecEx.exception.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class BoundedPasswordEncoderTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final PasswordEncoder delegate = mock(PasswordEncoder.class);
+	private final CountDownLatch release = new CountDownLatch(1);
+	private BoundedPasswordEncoder encoder;
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		if (encoder != null) {
+			encoder.destroy();
+		}
+	}
+
+	@Test
+	void hashesOnThePool() {
+		when(delegate.encode("secret")).thenAnswer(invocation -> Thread.currentThread().getName());
+		encoder = new BoundedPasswordEncoder(delegate, 1, 1, Duration.ofSeconds(5), registry);
+
+		assertTrue(encoder.encode("secret").startsWith("password-hashing-"));
+	}
+
+	@Test
+	void fullQueueIsRejectedAndCounted() throws Exception {
+		encoder = new BoundedPasswordEncoder(delegate, 1, 1, Duration.ofSeconds(5), registry);
+		new PasswordConfig().passwordHashingMetrics(encoder).bindTo(registry);
+		occupyTheHashingThread();
+		CompletableFuture.runAsync(() -> encoder.encode("queued"));
+		awaitQueueDepth(1);
+
+		assertThrows(ServiceBusyException.class, () -> encoder.matches("secret", "hash"));
+		assertEquals(1, encoder.getRejectedCount());
+		assertEquals(1.0, registry.get("auth.password.hashing.rejected").functionCounter().count());
+		assertEquals(1.0, registry.get("auth.password.hashing.queue.depth").gauge().value());
+	}
+
+	@Test
+	void timeoutCancelsTheQueuedTask() throws Exception {
+		encoder = new BoundedPasswordEncoder(delegate, 1, 1, Duration.ofMillis(100), registry);
+		occupyTheHashingThread();
+
+		assertThrows(ServiceBusyException.class, () -> encoder.encode("secret"));
+
+		// Once the thread is free, the cancelled task is skipped instead of hashed for nobody
+		release.countDown();
+		encoder.getExecutor().submit(() -> { }).get(5, TimeUnit.SECONDS);
+		verify(delegate, never()).encode(any());
+		assertEquals(0, encoder.getRejectedCount());
+	}
+
+	@Test
+	void delegateFailuresReachTheCaller() {
+		when(delegate.matches(any(), any()))
+				.thenThrow(new IllegalArgumentException("Encoded password does not look like BCrypt"));
+		encoder = new BoundedPasswordEncoder(delegate, 1, 1, Duration.ofSeconds(5), registry);
+
+		assertThrows(IllegalArgumentException.class, () -> encoder.matches("secret", "not-a-hash"));
+	}
+
+	private void occupyTheHashingThread() throws InterruptedException {
+		CountDownLatch started = new CountDownLatch(1);
+		encoder.getExecutor().submit(() -> {
+			started.countDown();
+			release.await();
+			return null;
+		});
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+	}
+
+	private void awaitQueueDepth(int depth) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (encoder.getQueueDepth() < depth) {
+			assertTrue(System.nanoTime() < deadline, "queue never reached " + depth);
+			Thread.sleep(5);
+		}
+	}
+}
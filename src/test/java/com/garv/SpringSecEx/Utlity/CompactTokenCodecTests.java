@@ -0,0 +1,96 @@
+package com.garv.SpringSecEx.Utlity;
+
+import com.garv.SpringSecEx.Entity.UserPrincipal;
+import com.garv.SpringSecEx.Entity.Users;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactTokenCodecTests {
+
+	private static final String SECRET = "test-secret-key-that-is-at-least-32-bytes-long";
+
+	private final JwtUtil compact = new JwtUtil(JwtKeyRing.hmac(SECRET), "compact");
+	private final JwtUtil jwt = new JwtUtil(SECRET);
+
+	@Test
+	void compactTokenCarriesTheSameClaims() {
+		Users user = new Users(1L, "alice", "{noop}secret", 3, null, 0b11L);
+		String token = compact.generateToken(new UserPrincipal(user));
+
+		VerifiedToken verified = compact.verify(token);
+
+		assertEquals("alice", verified.subject());
+		assertTrue(verified.isAccessToken());
+		assertEquals(3, verified.tokenVersion());
+		assertEquals(0b11L, verified.roleMask());
+		assertTrue(verified.hasEmbeddedClaims());
+		assertNotNull(UUID.fromString(verified.id()));
+		assertTrue(token.length() < jwt.generateToken(new UserPrincipal(user)).length() / 2);
+	}
+
+	@Test
+	void bothFormatsAreAcceptedByEitherInstance() {
+		assertEquals("alice", jwt.verify(compact.generateToken("alice")).subject());
+		assertEquals("alice", compact.verify(jwt.generateToken("alice")).subject());
+		assertFalse(compact.verify(compact.generateToken("alice")).hasEmbeddedClaims());
+	}
+
+	@Test
+	void tamperedTokenIsRejected() {
+		byte[] bytes = Base64.getUrlDecoder().decode(compact.generateToken("alice"));
+		bytes[bytes.length - 35] ^= 1; // inside the subject, just before the 32-byte MAC
+		String tampered = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+		assertThrows(SignatureException.class, () -> compact.verify(tampered));
+		assertNull(compact.verifyAccessToken(tampered));
+	}
+
+	@Test
+	void tokenFromAnotherKeyIsRejected() {
+		JwtUtil other = new JwtUtil(JwtKeyRing.hmac("another-secret-key-that-is-at-least-32-bytes"), "compact");
+
+		assertThrows(SignatureException.class, () -> compact.verify(other.generateToken("alice")));
+	}
+
+	@Test
+	void expiredTokenIsRejected() {
+		CompactTokenCodec codec = new CompactTokenCodec(JwtKeyRing.hmac(SECRET));
+		Instant issuedAt = Instant.now().minusSeconds(7200);
+		String token = codec.encode(VerifiedToken.ACCESS, UUID.randomUUID(), "alice",
+				issuedAt, issuedAt.plusSeconds(3600), null, 0);
+
+		assertThrows(ExpiredJwtException.class, () -> codec.decode(token));
+	}
+
+	@Test
+	void truncatedTokenIsMalformed() {
+		String token = compact.generateToken("alice");
+
+		assertThrows(JwtException.class, () -> compact.verify(token.substring(0, 20)));
+	}
+
+	@Test
+	void ed25519KeysSignCompactTokens() {
+		JwtUtil ed25519 = new JwtUtil(JwtKeyRing.generated("EdDSA"), "compact");
+
+		String token = ed25519.generateToken("alice");
+
+		assertEquals(-1, token.indexOf('.'));
+		assertEquals("alice", ed25519.verify(token).subject());
+	}
+
+	@Test
+	void ecKeysFallBackToJwt() {
+		JwtUtil ec = new JwtUtil(JwtKeyRing.generated("ES256"), "compact");
+
+		assertTrue(ec.generateToken("alice").indexOf('.') > 0);
+	}
+}
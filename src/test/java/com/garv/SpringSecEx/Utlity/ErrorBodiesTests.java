@@ -0,0 +1,52 @@
+package com.garv.SpringSecEx.Utlity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.garv.SpringSecEx.dto.ApiResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ErrorBodiesTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final ErrorBodies errorBodies = new ErrorBodies(objectMapper);
+
+	@Test
+	void matchesTheSerializedEnvelope() throws Exception {
+		byte[] expected = objectMapper.writeValueAsBytes(ApiResponse.error("Invalid username or password", 401));
+
+		assertArrayEquals(expected, errorBodies.body(HttpStatus.UNAUTHORIZED, "Invalid username or password"));
+	}
+
+	@Test
+	void reusesTheEncodedBody() {
+		byte[] first = errorBodies.body(HttpStatus.CONFLICT, "Username already exists");
+
+		assertSame(first, errorBodies.body(HttpStatus.CONFLICT, "Username already exists"));
+		assertNotSame(first, errorBodies.body(HttpStatus.UNAUTHORIZED, "Username already exists"));
+	}
+
+	@Test
+	void responseIsJson() {
+		ResponseEntity<byte[]> response = errorBodies.response(HttpStatus.UNAUTHORIZED, "Invalid or expired refresh token");
+
+		assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+		assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+	}
+
+	@Test
+	void writesToTheServletResponse() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		errorBodies.write(response, HttpStatus.TOO_MANY_REQUESTS, "Too many login attempts, please retry later");
+
+		assertEquals(429, response.getStatus());
+		assertEquals(MediaType.APPLICATION_JSON_VALUE, response.getContentType());
+		assertEquals(objectMapper.writeValueAsString(ApiResponse.error("Too many login attempts, please retry later", 429)),
+				response.getContentAsString());
+	}
+}
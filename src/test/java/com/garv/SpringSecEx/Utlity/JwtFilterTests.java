@@ -0,0 +1,125 @@
+package com.garv.SpringSecEx.Utlity;
+
+import com.garv.SpringSecEx.Entity.UserPrincipal;
+import com.garv.SpringSecEx.Entity.Users;
+import com.garv.SpringSecEx.Repository.RoleRepository;
+import com.garv.SpringSecEx.Repository.UserRepository;
+import com.garv.SpringSecEx.Services.AccessTokenPolicy;
+import com.garv.SpringSecEx.Services.RevocationStore;
+import com.garv.SpringSecEx.Services.RoleRegistry;
+import com.garv.SpringSecEx.Services.TokenRevocationService;
+import com.garv.SpringSecEx.Services.TokenVersionRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JwtFilterTests {
+
+	private final JwtUtil jwtUtil = new JwtUtil("test-secret-key-that-is-at-least-32-bytes-long");
+	private final Map<String, Users> users = new HashMap<>();
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final TokenRevocationService revocationService = new TokenRevocationService(
+			new StaticListableBeanFactory().getBeanProvider(RevocationStore.class), Duration.ofDays(7), 1000);
+	private final UserDetailsService userDetailsService = username -> {
+		Users user = users.get(username);
+		if (user == null) {
+			throw new UsernameNotFoundException("User not found");
+		}
+		return new UserPrincipal(user);
+	};
+
+	JwtFilterTests() {
+		users.put("alice", new Users(1L, "alice", "{noop}secret", 0, null, 1L));
+		when(userRepository.findTokenVersionByUsername(anyString()))
+				.thenAnswer(invocation -> {
+					Users user = users.get(invocation.<String>getArgument(0));
+					return user != null ? user.getTokenVersion() : null;
+				});
+	}
+
+	@AfterEach
+	void clearContext() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void authenticatesAnExistingUser() {
+		String token = jwtUtil.generateToken(new UserPrincipal(users.get("alice")));
+
+		Authentication authentication = filter(false, true, token);
+
+		assertNotNull(authentication);
+		assertEquals("alice", authentication.getName());
+	}
+
+	@Test
+	void rejectsTokensOfDeletedUsersEvenWhenLazy() {
+		String token = jwtUtil.generateToken(new UserPrincipal(users.get("alice")));
+		users.remove("alice");
+
+		assertNull(filter(false, false, token));
+		assertNull(filter(false, true, token));
+	}
+
+	@Test
+	void failedLoginLockoutDoesNotEndLiveSessions() {
+		String token = jwtUtil.generateToken(new UserPrincipal(users.get("alice")));
+		users.get("alice").setLockedUntil(Instant.now().plusSeconds(600));
+
+		assertNotNull(filter(false, true, token));
+		assertNotNull(filter(true, false, token));
+	}
+
+	@Test
+	void rejectsTokensWithAStaleVersionOnBothPaths() {
+		String token = jwtUtil.generateToken(new UserPrincipal(users.get("alice")));
+		users.get("alice").setTokenVersion(1); // e.g. logout-all or a role change
+
+		assertNull(filter(false, false, token));
+		assertNull(filter(true, false, token));
+	}
+
+	@Test
+	void lazyStatelessAuthenticationDefersTheUserLoad() {
+		String token = jwtUtil.generateToken(new UserPrincipal(users.get("alice")));
+
+		Authentication authentication = filter(true, true, token);
+
+		assertInstanceOf(LazyJwtAuthentication.class, authentication);
+		assertFalse(((LazyJwtAuthentication) authentication).isPrincipalLoaded());
+	}
+
+	private Authentication filter(boolean stateless, boolean lazy, String token) {
+		AccessTokenPolicy policy = new AccessTokenPolicy(revocationService,
+				new TokenVersionRegistry(userRepository, event -> { }, Duration.ofMinutes(5), 1000),
+				new RoleRegistry(mock(RoleRepository.class)), userDetailsService, stateless);
+		JwtFilter filter = new JwtFilter(new VerifiedTokenCache(jwtUtil, true, 1000), policy,
+				new AuthMetrics(new SimpleMeterRegistry()), lazy);
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		request.addHeader("Authorization", "Bearer " + token);
+		SecurityContextHolder.clearContext();
+		try {
+			filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+		} catch (Exception e) {
+			throw new AssertionError(e);
+		}
+		return SecurityContextHolder.getContext().getAuthentication();
+	}
+}
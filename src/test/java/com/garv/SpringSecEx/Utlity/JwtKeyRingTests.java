@@ -0,0 +1,91 @@
+package com.garv.SpringSecEx.Utlity;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtKeyRingTests {
+
+	@ParameterizedTest
+	@ValueSource(strings = {"RS256", "ES256", "EdDSA"})
+	void asymmetricTokensVerifyAndPublishTheirKey(String algorithm) {
+		JwtKeyRing keyRing = JwtKeyRing.generated(algorithm);
+		JwtUtil jwtUtil = new JwtUtil(keyRing);
+
+		assertEquals("alice", jwtUtil.verify(jwtUtil.generateToken("alice")).subject());
+
+		List<Object> kids = keyRing.publicJwks().stream().map(jwk -> jwk.get("kid")).toList();
+		assertTrue(kids.contains(keyRing.signingKey().kid()));
+	}
+
+	@Test
+	void rotatedKeysKeepVerifyingTheirTokens() {
+		JwtKeyRing keyRing = JwtKeyRing.generated("ES256");
+		JwtUtil jwtUtil = new JwtUtil(keyRing);
+		String before = jwtUtil.generateToken("alice");
+		String previousKid = keyRing.signingKey().kid();
+
+		keyRing.rotate();
+
+		assertNotEquals(previousKid, keyRing.signingKey().kid());
+		assertEquals("alice", jwtUtil.verify(before).subject());
+		assertEquals("alice", jwtUtil.verify(jwtUtil.generateToken("alice")).subject());
+	}
+
+	@Test
+	void tokensFromAnotherRingAreRejected() {
+		JwtUtil jwtUtil = new JwtUtil(JwtKeyRing.generated("RS256"));
+		JwtUtil other = new JwtUtil(JwtKeyRing.generated("RS256"));
+
+		assertThrows(JwtException.class, () -> jwtUtil.verify(other.generateToken("alice")));
+	}
+
+	@Test
+	void asymmetricRingsRejectHmacTokensUnlessAskedTo() {
+		String secret = "test-secret-key-that-is-at-least-32-bytes-long";
+		String hmacToken = new JwtUtil(secret).generateToken("alice");
+		String kidless = Jwts.builder().subject("alice").claim("type", VerifiedToken.ACCESS).issuedAt(new Date())
+				.expiration(new Date(System.currentTimeMillis() + 60_000))
+				.signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8))).compact();
+
+		JwtUtil strict = new JwtUtil(new JwtKeyRing(secret, "ES256", "", "", "",
+				Duration.ofDays(1), Duration.ofDays(8), false));
+		assertThrows(JwtException.class, () -> strict.verify(hmacToken));
+		assertThrows(JwtException.class, () -> strict.verify(kidless));
+
+		JwtUtil switching = new JwtUtil(new JwtKeyRing(secret, "ES256", "", "", "",
+				Duration.ofDays(1), Duration.ofDays(8), true));
+		assertEquals("alice", switching.verify(hmacToken).subject());
+		assertThrows(JwtException.class, () -> switching.verify(kidless));
+
+		assertEquals("alice", new JwtUtil(secret).verify(kidless).subject());
+	}
+
+	@Test
+	void hmacRingPublishesNothing() {
+		JwtKeyRing keyRing = JwtKeyRing.hmac("test-secret-key-that-is-at-least-32-bytes-long");
+
+		assertTrue(keyRing.publicJwks().isEmpty());
+	}
+
+	@Test
+	void rsaJwkHasUnpaddedModulus() {
+		Map<String, Object> jwk = JwtKeyRing.generated("RS256").publicJwks().get(0);
+
+		assertEquals("RSA", jwk.get("kty"));
+		assertEquals("sig", jwk.get("use"));
+		assertEquals(256, Base64.getUrlDecoder().decode((String) jwk.get("n")).length);
+	}
+}
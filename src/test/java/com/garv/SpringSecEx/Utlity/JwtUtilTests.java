@@ -0,0 +1,52 @@
+package com.garv.SpringSecEx.Utlity;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTests {
+
+	private static final String SECRET = "test-secret-key-that-is-at-least-32-bytes-long";
+
+	private final JwtUtil jwtUtil = new JwtUtil(SECRET);
+
+	@Test
+	void verifyReturnsClaimsOfAccessToken() {
+		VerifiedToken verified = jwtUtil.verify(jwtUtil.generateToken("alice"));
+
+		assertEquals("alice", verified.subject());
+		assertTrue(verified.isAccessToken());
+		assertNotNull(verified.issuedAt());
+		assertTrue(verified.expiresAt().isAfter(verified.issuedAt()));
+	}
+
+	@Test
+	void accessAndRefreshTokensAreNotInterchangeable() {
+		String refreshToken = jwtUtil.generateRefreshToken("alice");
+
+		assertNull(jwtUtil.verifyAccessToken(refreshToken));
+		assertNotNull(jwtUtil.verifyRefreshToken(refreshToken));
+	}
+
+	@Test
+	void verifyRejectsTokensWithoutExpiration() {
+		String token = Jwts.builder().subject("alice").claim("type", VerifiedToken.ACCESS)
+				.signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8))).compact();
+
+		assertThrows(MalformedJwtException.class, () -> jwtUtil.verify(token));
+	}
+
+	@Test
+	void verifyRejectsTokenSignedWithAnotherKey() {
+		JwtUtil other = new JwtUtil("another-secret-key-that-is-at-least-32-bytes");
+
+		assertThrows(JwtException.class, () -> jwtUtil.verify(other.generateToken("alice")));
+		assertNull(jwtUtil.verifyAccessToken(other.generateToken("alice")));
+	}
+}
@@ -0,0 +1,79 @@
+package com.garv.SpringSecEx.Utlity;
+
+import com.garv.SpringSecEx.Entity.UserPrincipal;
+import com.garv.SpringSecEx.Entity.Users;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LazyJwtAuthenticationTests {
+
+	private final VerifiedToken token = new VerifiedToken("jti", "alice", VerifiedToken.ACCESS,
+			Instant.now(), Instant.now().plusSeconds(3600), 1L, 0);
+	private final AtomicInteger loads = new AtomicInteger();
+
+	private UserPrincipal load() {
+		loads.incrementAndGet();
+		return new UserPrincipal(new Users(1L, "alice", "{noop}secret", 0, null, 1L));
+	}
+
+	@Test
+	void nameDoesNotLoadTheUser() {
+		LazyJwtAuthentication authentication = new LazyJwtAuthentication(token, this::load, null, null);
+
+		assertEquals("alice", authentication.getName());
+		assertTrue(authentication.isAuthenticated());
+		assertFalse(authentication.isPrincipalLoaded());
+		assertEquals(0, loads.get());
+	}
+
+	@Test
+	void principalAndAuthoritiesLoadOnce() {
+		LazyJwtAuthentication authentication = new LazyJwtAuthentication(token, this::load, null, null);
+
+		assertEquals(AuthorityUtils.createAuthorityList("ROLE_USER"), authentication.getAuthorities().stream().toList());
+		assertEquals("{noop}secret", authentication.getPrincipal().getPassword());
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	void authoritiesFromTheTokenDoNotLoadTheUser() {
+		LazyJwtAuthentication authentication = new LazyJwtAuthentication(token, this::load,
+				AuthorityUtils.createAuthorityList("ROLE_ADMIN"), null);
+
+		assertEquals("ROLE_ADMIN", authentication.getAuthorities().iterator().next().getAuthority());
+		assertEquals(0, loads.get());
+	}
+
+	@Test
+	void detailsAreBuiltOnDemand() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setRemoteAddr("10.0.0.1");
+		LazyJwtAuthentication authentication = new LazyJwtAuthentication(token, this::load, null, request);
+
+		WebAuthenticationDetails details = (WebAuthenticationDetails) authentication.getDetails();
+
+		assertEquals("10.0.0.1", details.getRemoteAddress());
+		assertSame(details, authentication.getDetails());
+	}
+
+	@Test
+	void claimsPrincipalLoadsTheEntityOnlyForPassword() {
+		UserPrincipal principal = UserPrincipal.fromClaims("alice", 0, 1L,
+				AuthorityUtils.createAuthorityList("ROLE_USER"), () -> load().getUser());
+
+		assertEquals("alice", principal.getUsername());
+		assertEquals(1L, principal.getRoleMask());
+		assertFalse(principal.isUserLoaded());
+
+		assertEquals("{noop}secret", principal.getPassword());
+		assertTrue(principal.isUserLoaded());
+		assertEquals(1, loads.get());
+	}
+}
@@ -0,0 +1,107 @@
+package com.garv.SpringSecEx.Utlity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.garv.SpringSecEx.Services.LoginRateLimiter;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginRateLimitFilterTests {
+
+	private static final String BODY = "{\"username\":\" Alice \",\"password\":\"secret\"}";
+
+	private final LoginRateLimiter limiter = new LoginRateLimiter(true, 100, 1, 2, 1, 1000);
+	private final LoginRateLimitFilter filter =
+			new LoginRateLimitFilter(limiter, new ObjectMapper(), new ErrorBodies(new ObjectMapper()));
+
+	@Test
+	void replaysTheBodyToTheController() throws Exception {
+		MockFilterChain chain = new MockFilterChain();
+
+		filter.doFilter(login("10.0.0.1"), new MockHttpServletResponse(), chain);
+
+		ServletInputStream input = chain.getRequest().getInputStream();
+		assertEquals(BODY, new String(input.readAllBytes(), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void readListenerSeesTheWholeBody() throws Exception {
+		MockFilterChain chain = new MockFilterChain();
+		filter.doFilter(login("10.0.0.1"), new MockHttpServletResponse(), chain);
+		ServletInputStream input = chain.getRequest().getInputStream();
+		List<String> calls = new ArrayList<>();
+
+		input.setReadListener(new ReadListener() {
+			@Override
+			public void onDataAvailable() {
+				calls.add("available");
+			}
+
+			@Override
+			public void onAllDataRead() {
+				calls.add("done");
+			}
+
+			@Override
+			public void onError(Throwable t) {
+				calls.add("error");
+			}
+		});
+
+		assertEquals(List.of("available", "done"), calls);
+	}
+
+	@Test
+	void rejectsAttemptsOverTheUsernameLimit() throws Exception {
+		filter.doFilter(login("10.0.0.1"), new MockHttpServletResponse(), new MockFilterChain());
+		filter.doFilter(login("10.0.0.2"), new MockHttpServletResponse(), new MockFilterChain());
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockFilterChain chain = new MockFilterChain();
+
+		filter.doFilter(login("10.0.0.3"), response, chain); // same normalized username
+
+		assertEquals(429, response.getStatus());
+		assertNotNull(response.getHeader("Retry-After"));
+		assertNull(chain.getRequest());
+	}
+
+	@Test
+	void rejectsOversizedBodies() throws Exception {
+		MockHttpServletRequest request = login("10.0.0.1");
+		request.setContent(new byte[9 * 1024]);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		filter.doFilter(request, response, new MockFilterChain());
+
+		assertEquals(413, response.getStatus());
+	}
+
+	@Test
+	void otherRequestsPassUntouched() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/auth/login");
+		request.setServletPath("/auth/login");
+		MockFilterChain chain = new MockFilterChain();
+
+		filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+		assertSame(request, chain.getRequest());
+	}
+
+	private static MockHttpServletRequest login(String ip) {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/login");
+		request.setServletPath("/auth/login");
+		request.setRemoteAddr(ip);
+		request.setContentType("application/json");
+		request.setContent(BODY.getBytes(StandardCharsets.UTF_8));
+		return request;
+	}
+}
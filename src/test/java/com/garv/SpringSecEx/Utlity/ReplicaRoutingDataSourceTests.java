@@ -0,0 +1,146 @@
+package com.garv.SpringSecEx.Utlity;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class ReplicaRoutingDataSourceTests {
+
+	private DataSource primary;
+	private DataSource replica;
+	private Connection primaryConnection;
+	private Connection replicaConnection;
+	private ResultSet lag;
+	private ReplicaRoutingDataSource routing;
+
+	@BeforeEach
+	void setUp() throws SQLException {
+		primary = mock(DataSource.class);
+		replica = mock(DataSource.class);
+		primaryConnection = mock(Connection.class);
+		replicaConnection = mock(Connection.class);
+		when(primary.getConnection()).thenReturn(primaryConnection);
+		when(replica.getConnection()).thenReturn(replicaConnection);
+		when(primaryConnection.createStatement()).thenReturn(mock(Statement.class));
+		when(replicaConnection.createStatement()).thenReturn(mock(Statement.class));
+		when(replicaConnection.isValid(anyInt())).thenReturn(true);
+		PreparedStatement lagQuery = mock(PreparedStatement.class);
+		lag = mock(ResultSet.class);
+		when(replicaConnection.prepareStatement(ReplicaRoutingDataSource.LAG_QUERY)).thenReturn(lagQuery);
+		when(lagQuery.executeQuery()).thenReturn(lag);
+		when(lag.next()).thenReturn(true);
+		when(lag.getDouble(1)).thenReturn(0.2);
+		routing = new ReplicaRoutingDataSource(primary,
+				List.of(new ReplicaRoutingDataSource.Replica("replica-0", replica)),
+				Duration.ofSeconds(1), Duration.ofSeconds(1));
+		routing.checkHealth();
+	}
+
+	@Test
+	void replicasTakeNoReadsBeforeTheirFirstCheck() throws SQLException {
+		ReplicaRoutingDataSource unchecked = new ReplicaRoutingDataSource(primary,
+				List.of(new ReplicaRoutingDataSource.Replica("replica-0", replica)),
+				Duration.ofSeconds(1), Duration.ofSeconds(1));
+
+		assertSame(primaryConnection, unchecked.getConnection());
+	}
+
+	@Test
+	void readsFromTheReplica() throws SQLException {
+		assertSame(replicaConnection, routing.getConnection());
+	}
+
+	@Test
+	void pinnedReadsGoToThePrimary() throws SQLException {
+		Connection connection = ReplicaRoutingDataSource.onPrimary(() -> {
+			try {
+				return routing.getConnection();
+			} catch (SQLException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+
+		assertSame(primaryConnection, connection);
+		assertSame(replicaConnection, routing.getConnection()); // the pin ends with the lookup
+	}
+
+	@Test
+	void fallsBackToThePrimaryUntilTheReplicaRecovers() throws SQLException {
+		when(replica.getConnection()).thenThrow(new SQLException("down"));
+
+		assertSame(primaryConnection, routing.getConnection());
+		assertFalse(routing.getReplicas().get(0).isHealthy());
+		assertSame(primaryConnection, routing.getConnection());
+
+		doReturn(replicaConnection).when(replica).getConnection();
+		routing.checkHealth();
+
+		assertTrue(routing.getReplicas().get(0).isHealthy());
+		assertSame(replicaConnection, routing.getConnection());
+	}
+
+	@Test
+	void healthCheckMarksInvalidReplicasDown() throws SQLException {
+		when(replicaConnection.isValid(anyInt())).thenReturn(false);
+
+		routing.checkHealth();
+
+		assertFalse(routing.getReplicas().get(0).isHealthy());
+	}
+
+	@Test
+	void laggingReplicasAreSkippedUntilTheyCatchUp() throws SQLException {
+		when(lag.getDouble(1)).thenReturn(3.5);
+
+		routing.checkHealth();
+
+		assertFalse(routing.getReplicas().get(0).isHealthy());
+		assertEquals(3.5, routing.getReplicas().get(0).getLagSeconds());
+		assertSame(primaryConnection, routing.getConnection());
+
+		when(lag.getDouble(1)).thenReturn(0.0);
+		routing.checkHealth();
+
+		assertTrue(routing.getReplicas().get(0).isHealthy());
+		assertSame(replicaConnection, routing.getConnection());
+	}
+
+	@Test
+	void credentialedConnectionsGoToThePrimary() throws SQLException {
+		when(primary.getConnection("admin", "secret")).thenReturn(primaryConnection);
+
+		assertSame(primaryConnection, routing.getConnection("admin", "secret"));
+	}
+
+	@Test
+	void onlyReadOnlyConnectionsOfTheProxyAreRouted() throws SQLException {
+		LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+		proxy.setReadOnlyDataSource(routing);
+		proxy.setDefaultAutoCommit(true);
+		proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+
+		try (Connection readOnly = proxy.getConnection()) {
+			readOnly.setReadOnly(true);
+			readOnly.createStatement();
+		}
+		verify(replicaConnection).createStatement();
+
+		try (Connection readWrite = proxy.getConnection()) {
+			readWrite.createStatement();
+		}
+		verify(primaryConnection).createStatement();
+	}
+}
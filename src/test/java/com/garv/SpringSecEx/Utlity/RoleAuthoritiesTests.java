@@ -0,0 +1,51 @@
+package com.garv.SpringSecEx.Utlity;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoleAuthoritiesTests {
+
+	private final RoleAuthorities roles = new RoleAuthorities(1, List.of(
+			new RoleAuthorities.RoleDefinition("USER", 0, Set.of(), Set.of("profile:read")),
+			new RoleAuthorities.RoleDefinition("SUPPORT", 2, Set.of("USER"), Set.of("users:read")),
+			new RoleAuthorities.RoleDefinition("ADMIN", 1, Set.of("SUPPORT"), Set.of("users:roles"))
+	));
+
+	@Test
+	void includesAreResolvedTransitively() {
+		Set<String> authorities = AuthorityUtils.authorityListToSet(roles.authoritiesFor(0b10));
+
+		assertEquals(Set.of("ROLE_ADMIN", "ROLE_SUPPORT", "ROLE_USER",
+				"users:roles", "users:read", "profile:read"), authorities);
+	}
+
+	@Test
+	void authoritySetsAreSharedAndImmutable() {
+		Set<GrantedAuthority> first = roles.authoritiesFor(0b1);
+
+		assertSame(first, roles.authoritiesFor(0b1));
+		assertThrows(UnsupportedOperationException.class, () -> first.clear());
+	}
+
+	@Test
+	void cyclicIncludesTerminate() {
+		RoleAuthorities cyclic = new RoleAuthorities(1, List.of(
+				new RoleAuthorities.RoleDefinition("A", 0, Set.of("B"), Set.of()),
+				new RoleAuthorities.RoleDefinition("B", 1, Set.of("A"), Set.of())
+		));
+
+		assertEquals(Set.of("ROLE_A", "ROLE_B"), AuthorityUtils.authorityListToSet(cyclic.authoritiesFor(0b1)));
+	}
+
+	@Test
+	void maskOfRejectsUnknownRoles() {
+		assertEquals(0b101, roles.maskOf(List.of("USER", "SUPPORT")));
+		assertThrows(IllegalArgumentException.class, () -> roles.maskOf(List.of("ROOT")));
+	}
+}
@@ -0,0 +1,59 @@
+package com.garv.SpringSecEx.Utlity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.garv.SpringSecEx.exception.ServiceBusyException;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceBusyFilterTests {
+
+	private final ServiceBusyFilter filter = new ServiceBusyFilter(new ErrorBodies(new ObjectMapper()));
+
+	@Test
+	void busyServiceIsA503WithRetryAfter() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		filter.doFilter(new MockHttpServletRequest("GET", "/auth/me"), response, (request, ignored) -> {
+			throw new ServiceBusyException("Database is busy, try again shortly");
+		});
+
+		assertEquals(503, response.getStatus());
+		assertEquals("1", response.getHeader("Retry-After"));
+		assertTrue(response.getContentAsString().contains("Database is busy"));
+	}
+
+	@Test
+	void busyServiceWrappedByTheServletIsA503Too() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		filter.doFilter(new MockHttpServletRequest("GET", "/auth/me"), response, (request, ignored) -> {
+			throw new ServletException("Request processing failed", new ServiceBusyException("busy"));
+		});
+
+		assertEquals(503, response.getStatus());
+	}
+
+	@Test
+	void otherFailuresPassThrough() {
+		assertThrows(IllegalStateException.class, () -> filter.doFilter(
+				new MockHttpServletRequest("GET", "/"), new MockHttpServletResponse(), (request, ignored) -> {
+					throw new IllegalStateException("bug");
+				}));
+	}
+
+	@Test
+	void normalRequestsAreUntouched() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockFilterChain chain = new MockFilterChain();
+
+		filter.doFilter(new MockHttpServletRequest("GET", "/"), response, chain);
+
+		assertNotNull(chain.getRequest());
+		assertEquals(200, response.getStatus());
+	}
+}
@@ -0,0 +1,32 @@
+package com.garv.SpringSecEx.Utlity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrustedNetworksTests {
+
+	private final TrustedNetworks networks = new TrustedNetworks(List.of("127.0.0.1/32", " 10.0.0.0/8", "::1/128", ""));
+
+	@Test
+	void matchesAddressesInsideTheBlocks() {
+		assertTrue(networks.contains("127.0.0.1"));
+		assertTrue(networks.contains("10.12.0.7"));
+		assertTrue(networks.contains("::1"));
+	}
+
+	@Test
+	void rejectsEverythingElse() {
+		assertFalse(networks.contains("192.168.1.1"));
+		assertFalse(networks.contains("11.0.0.1"));
+		assertFalse(networks.contains("not-an-address"));
+		assertFalse(networks.contains(null));
+	}
+
+	@Test
+	void emptyListTrustsNobody() {
+		assertFalse(new TrustedNetworks(List.of()).contains("127.0.0.1"));
+	}
+}
@@ -0,0 +1,37 @@
+package com.garv.SpringSecEx.Utlity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UsernameNormalizerTests {
+
+	@Test
+	void trimsAndLowerCases() {
+		assertEquals("alice", UsernameNormalizer.normalize("  Alice "));
+	}
+
+	@Test
+	void foldsCompatibilityCharacters() {
+		assertEquals("alice", UsernameNormalizer.normalize("Ａｌｉｃｅ")); // full-width
+		assertEquals("fi", UsernameNormalizer.normalize("ﬁ"));
+	}
+
+	@Test
+	void lowerCasesIndependentlyOfDefaultLocale() {
+		Locale previous = Locale.getDefault();
+		Locale.setDefault(Locale.forLanguageTag("tr"));
+		try {
+			assertEquals("title", UsernameNormalizer.normalize("TITLE")); // not the dotless ı
+		} finally {
+			Locale.setDefault(previous);
+		}
+	}
+
+	@Test
+	void nullStaysNull() {
+		assertNull(UsernameNormalizer.normalize(null));
+	}
+}
@@ -0,0 +1,68 @@
+package com.garv.SpringSecEx.Utlity;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class VerifiedTokenCacheTests {
+
+	private static final String SECRET = "test-secret-key-that-is-at-least-32-bytes-long";
+
+	private final JwtUtil jwtUtil = spy(new JwtUtil(SECRET));
+	private final VerifiedTokenCache cache = new VerifiedTokenCache(jwtUtil, true, 1000);
+
+	@Test
+	void repeatedTokensAreVerifiedOnce() {
+		String token = jwtUtil.generateToken("alice");
+
+		VerifiedToken first = cache.verify(token);
+
+		assertSame(first, cache.verify(token));
+		verify(jwtUtil, times(1)).verify(token);
+		assertEquals(1, cache.stats().hitCount());
+	}
+
+	@Test
+	void differentTokensAreVerifiedSeparately() {
+		String alice = jwtUtil.generateToken("alice");
+		String bob = jwtUtil.generateToken("bob");
+
+		assertEquals("alice", cache.verify(alice).subject());
+		assertEquals("bob", cache.verify(bob).subject());
+		verify(jwtUtil, times(2)).verify(anyString());
+	}
+
+	@Test
+	void expiredTokensAreNotServedFromTheCache() throws InterruptedException {
+		Date expiration = new Date(System.currentTimeMillis() + 1500);
+		String token = Jwts.builder().subject("alice").claim("type", VerifiedToken.ACCESS)
+				.issuedAt(new Date()).expiration(expiration)
+				.signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8))).compact();
+		assertEquals("alice", cache.verify(token).subject());
+
+		// exp has second precision, so wait until the truncated expiry has passed
+		Thread.sleep(expiration.getTime() - System.currentTimeMillis() + 100);
+
+		assertThrows(ExpiredJwtException.class, () -> cache.verify(token));
+	}
+
+	@Test
+	void disabledCacheVerifiesEveryTime() {
+		VerifiedTokenCache disabled = new VerifiedTokenCache(jwtUtil, false, 1000);
+		String token = jwtUtil.generateToken("alice");
+
+		disabled.verify(token);
+		disabled.verify(token);
+
+		assertFalse(disabled.isEnabled());
+		verify(jwtUtil, times(2)).verify(token);
+	}
+}
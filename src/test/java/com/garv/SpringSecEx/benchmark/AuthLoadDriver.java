@@ -0,0 +1,229 @@
+package com.garv.SpringSecEx.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop HTTP load against a running instance, used to compare the platform-thread
+ * and virtual-thread modes on the same hardware. Run it once against each mode with the
+ * same arguments and compare the printed throughput and latencies:
+ * <pre>
+ * java -jar app.jar --auth.rate-limit.enabled=false                                   # platform threads
+ * java -jar app.jar --auth.rate-limit.enabled=false --spring.profiles.active=virtual  # virtual threads
+ * ./mvnw -Pbenchmarks test-compile exec:exec@load-driver -Dload.args="http://localhost:8080 200 60"
+ * </pre>
+ * Arguments: base URL, concurrent clients, duration in seconds. Each client logs in as its
+ * own user and then mixes authenticated requests (GET /auth/me, through JwtFilter),
+ * refreshes and logins (BCrypt and JDBC), see {@link Operation}. The login rate limiter
+ * must be off, since every client connects from the same address.
+ * <p>
+ * {@link AuthLoadRegressionIT} runs the same mix against an embedded instance and compares
+ * the result with a stored baseline.
+ */
+public final class AuthLoadDriver {
+
+    private static final Pattern ACCESS_TOKEN = Pattern.compile("\"accessToken\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern REFRESH_TOKEN = Pattern.compile("\"refreshToken\"\\s*:\\s*\"([^\"]+)\"");
+    static final String PASSWORD = "load-test-password";
+
+    /**
+     * Request types, with their share of a client's requests after its first login.
+     */
+    public enum Operation {
+        AUTHENTICATED(80),
+        REFRESH(10),
+        LOGIN(10);
+
+        private final int percent;
+
+        Operation(int percent) {
+            this.percent = percent;
+        }
+
+        static Operation pick() {
+            int roll = ThreadLocalRandom.current().nextInt(100);
+            return roll < AUTHENTICATED.percent ? AUTHENTICATED
+                    : roll < AUTHENTICATED.percent + REFRESH.percent ? REFRESH
+                    : LOGIN;
+        }
+    }
+
+    /**
+     * Latency percentiles in milliseconds and throughput in requests per second.
+     */
+    public record Stats(long requests, double throughput, double p50, double p99, double max) {
+    }
+
+    public record Result(Map<Operation, Stats> operations, Stats overall, long errors) {
+    }
+
+    private record ClientResult(Map<Operation, long[]> latencies, Map<Operation, Integer> counts) {
+    }
+
+    private AuthLoadDriver() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        Duration duration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 60);
+
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        List<String> usernames = new ArrayList<>();
+        String prefix = "load-" + System.currentTimeMillis() + "-";
+        for (int i = 0; i < clients; i++) {
+            usernames.add(prefix + i);
+            send(http, post(baseUrl + "/auth/register", credentials(prefix + i)));
+        }
+
+        Result result = run(http, baseUrl, usernames, duration);
+        System.out.printf("clients=%d duration=%ds requests=%d errors=%d%n",
+                clients, duration.toSeconds(), result.overall().requests(), result.errors());
+        print("overall", result.overall());
+        result.operations().forEach((operation, stats) -> print(operation.name().toLowerCase(), stats));
+    }
+
+    private static void print(String label, Stats stats) {
+        System.out.printf("%-13s throughput=%.1f req/s p50=%.2f ms p99=%.2f ms max=%.2f ms%n",
+                label, stats.throughput(), stats.p50(), stats.p99(), stats.max());
+    }
+
+    /**
+     * Drive one client per username for the given duration.
+     */
+    public static Result run(HttpClient http, String baseUrl, List<String> usernames, Duration duration)
+            throws Exception {
+        LongAdder errors = new LongAdder();
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService pool = Executors.newFixedThreadPool(usernames.size());
+        List<Future<ClientResult>> futures = new ArrayList<>();
+        for (String username : usernames) {
+            futures.add(pool.submit(() -> runClient(http, baseUrl, username, deadline, errors)));
+        }
+
+        Map<Operation, long[]> merged = new EnumMap<>(Operation.class);
+        for (Future<ClientResult> future : futures) {
+            ClientResult client = future.get();
+            for (Operation operation : Operation.values()) {
+                long[] own = Arrays.copyOf(client.latencies().get(operation), client.counts().get(operation));
+                long[] all = merged.getOrDefault(operation, new long[0]);
+                long[] combined = Arrays.copyOf(all, all.length + own.length);
+                System.arraycopy(own, 0, combined, all.length, own.length);
+                merged.put(operation, combined);
+            }
+        }
+        pool.shutdown();
+
+        double seconds = duration.toNanos() / 1e9;
+        Map<Operation, Stats> operations = new EnumMap<>(Operation.class);
+        long[] everything = new long[0];
+        for (Map.Entry<Operation, long[]> entry : merged.entrySet()) {
+            operations.put(entry.getKey(), stats(entry.getValue(), seconds));
+            long[] combined = Arrays.copyOf(everything, everything.length + entry.getValue().length);
+            System.arraycopy(entry.getValue(), 0, combined, everything.length, entry.getValue().length);
+            everything = combined;
+        }
+        return new Result(operations, stats(everything, seconds), errors.sum());
+    }
+
+    private static ClientResult runClient(HttpClient http, String baseUrl, String username, long deadline,
+                                          LongAdder errors) {
+        Map<Operation, long[]> latencies = new EnumMap<>(Operation.class);
+        Map<Operation, Integer> counts = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new long[1024]);
+            counts.put(operation, 0);
+        }
+
+        String accessToken = null;
+        String refreshToken = null;
+        while (System.nanoTime() < deadline) {
+            Operation operation = accessToken == null ? Operation.LOGIN : Operation.pick();
+            HttpRequest request = switch (operation) {
+                case LOGIN -> post(baseUrl + "/auth/login", credentials(username));
+                case REFRESH -> post(baseUrl + "/auth/refresh", "{\"refreshToken\":\"" + refreshToken + "\"}");
+                case AUTHENTICATED -> HttpRequest.newBuilder(URI.create(baseUrl + "/auth/me"))
+                        .header("Authorization", "Bearer " + accessToken)
+                        .GET()
+                        .build();
+            };
+            long start = System.nanoTime();
+            HttpResponse<String> response = send(http, request);
+            long elapsed = System.nanoTime() - start;
+
+            if (response == null || response.statusCode() >= 400) {
+                errors.increment();
+                accessToken = null; // start over with a login
+                continue;
+            }
+            if (operation != Operation.AUTHENTICATED) {
+                Matcher access = ACCESS_TOKEN.matcher(response.body());
+                Matcher refresh = REFRESH_TOKEN.matcher(response.body());
+                accessToken = access.find() ? access.group(1) : null;
+                refreshToken = refresh.find() ? refresh.group(1) : null;
+            }
+
+            long[] own = latencies.get(operation);
+            int count = counts.get(operation);
+            if (count == own.length) {
+                own = Arrays.copyOf(own, count * 2);
+                latencies.put(operation, own);
+            }
+            own[count] = elapsed;
+            counts.put(operation, count + 1);
+        }
+        return new ClientResult(latencies, counts);
+    }
+
+    private static Stats stats(long[] latencies, double seconds) {
+        Arrays.sort(latencies);
+        return new Stats(latencies.length, latencies.length / seconds,
+                percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 1.0));
+    }
+
+    private static HttpRequest post(String url, String json) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private static String credentials(String username) {
+        return "{\"username\":\"" + username + "\",\"password\":\"" + PASSWORD + "\"}";
+    }
+
+    private static HttpResponse<String> send(HttpClient http, HttpRequest request) {
+        try {
+            return http.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+}
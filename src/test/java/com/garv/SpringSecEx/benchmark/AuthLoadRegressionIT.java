@@ -0,0 +1,147 @@
+package com.garv.SpringSecEx.benchmark;
+
+import com.garv.SpringSecEx.Entity.Users;
+import com.garv.SpringSecEx.Repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Performance regression check for the auth endpoints: boots the application on H2 in
+ * PostgreSQL mode (application-loadtest.properties), drives the {@link AuthLoadDriver}
+ * mix against it and compares p50/p99 latency and throughput with a stored baseline.
+ * <pre>
+ * ./mvnw -Ploadtest verify                                      # fails on a regression
+ * ./mvnw -Ploadtest verify -Dloadtest.update-baseline=true      # record target/loadtest/baseline.properties
+ * </pre>
+ * Latencies may grow and throughput may drop by {@code loadtest.tolerance} (default 25%)
+ * before the build fails. A baseline belongs to the machine it was recorded on, so CI
+ * passes its own with {@code -Dloadtest.baseline=...}; a missing baseline fails the build
+ * rather than quietly recording one. Recorded baselines go to target/ and are copied into
+ * place by hand.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("loadtest")
+class AuthLoadRegressionIT {
+
+	private static final double MAX_ERROR_RATE = 0.01;
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Test
+	void authEndpointsStayWithinBaseline() throws Exception {
+		int clients = Integer.getInteger("loadtest.clients", 32);
+		Duration warmup = Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 15));
+		Duration duration = Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 30));
+		double tolerance = Double.parseDouble(System.getProperty("loadtest.tolerance", "0.25"));
+		Path baselineFile = Path.of(System.getProperty("loadtest.baseline",
+				"src/test/resources/loadtest/baseline.properties"));
+		Path resultFile = Path.of(System.getProperty("loadtest.result", "target/loadtest/result.properties"));
+		Path recordedBaselineFile = resultFile.resolveSibling("baseline.properties");
+		boolean updateBaseline = Boolean.getBoolean("loadtest.update-baseline");
+		assertTrue(updateBaseline || Files.exists(baselineFile), "No baseline at " + baselineFile
+				+ "; record one on this machine with -Dloadtest.update-baseline=true and copy "
+				+ recordedBaselineFile + " there, or point -Dloadtest.baseline at it");
+
+		// Registration goes through insert ... on conflict ... returning, which H2 lacks
+		String password = passwordEncoder.encode(AuthLoadDriver.PASSWORD);
+		List<String> usernames = new ArrayList<>();
+		for (int i = 0; i < clients; i++) {
+			Users user = new Users();
+			user.setUsername("load-" + i);
+			user.setPassword(password);
+			userRepository.save(user);
+			usernames.add(user.getUsername());
+		}
+
+		HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+		String baseUrl = "http://localhost:" + port;
+		AuthLoadDriver.run(http, baseUrl, usernames, warmup); // JIT, caches, connection pool
+		AuthLoadDriver.Result result = AuthLoadDriver.run(http, baseUrl, usernames, duration);
+
+		Properties current = toProperties(result);
+		store(current, resultFile, "Auth load test result, " + clients + " clients for " + duration);
+
+		long total = result.overall().requests() + result.errors();
+		assertTrue(total > 0, "No requests completed");
+		assertTrue(result.errors() <= total * MAX_ERROR_RATE,
+				result.errors() + " of " + total + " requests failed");
+
+		if (updateBaseline) {
+			store(current, recordedBaselineFile, "Auth load test baseline, " + clients + " clients for " + duration);
+			return;
+		}
+
+		Properties baseline = new Properties();
+		try (Reader reader = Files.newBufferedReader(baselineFile)) {
+			baseline.load(reader);
+		}
+		List<String> regressions = new ArrayList<>();
+		for (String key : current.stringPropertyNames()) {
+			String expected = baseline.getProperty(key);
+			if (expected == null || key.endsWith(".requests")) {
+				continue;
+			}
+			double was = Double.parseDouble(expected);
+			double now = Double.parseDouble(current.getProperty(key));
+			boolean regressed = key.endsWith(".throughput")
+					? now < was * (1 - tolerance)
+					: now > was * (1 + tolerance);
+			if (regressed) {
+				regressions.add(String.format(Locale.ROOT, "%s: %.2f -> %.2f", key, was, now));
+			}
+		}
+		assertTrue(regressions.isEmpty(), "Regressed beyond " + (int) (tolerance * 100) + "% of "
+				+ baselineFile + ": " + regressions);
+	}
+
+	private static Properties toProperties(AuthLoadDriver.Result result) {
+		Properties properties = new Properties();
+		put(properties, "overall", result.overall());
+		for (Map.Entry<AuthLoadDriver.Operation, AuthLoadDriver.Stats> entry : result.operations().entrySet()) {
+			put(properties, entry.getKey().name().toLowerCase(), entry.getValue());
+		}
+		return properties;
+	}
+
+	private static void put(Properties properties, String prefix, AuthLoadDriver.Stats stats) {
+		properties.setProperty(prefix + ".requests", Long.toString(stats.requests()));
+		properties.setProperty(prefix + ".throughput", String.format(Locale.ROOT, "%.1f", stats.throughput()));
+		properties.setProperty(prefix + ".p50", String.format(Locale.ROOT, "%.2f", stats.p50()));
+		properties.setProperty(prefix + ".p99", String.format(Locale.ROOT, "%.2f", stats.p99()));
+	}
+
+	private static void store(Properties properties, Path file, String comment) throws IOException {
+		if (file.getParent() != null) {
+			Files.createDirectories(file.getParent());
+		}
+		try (Writer writer = Files.newBufferedWriter(file)) {
+			properties.store(writer, comment);
+		}
+	}
+}
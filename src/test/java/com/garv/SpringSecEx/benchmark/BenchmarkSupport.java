@@ -0,0 +1,51 @@
+package com.garv.SpringSecEx.benchmark;
+
+import com.garv.SpringSecEx.Entity.UserPrincipal;
+import com.garv.SpringSecEx.Entity.Users;
+import com.garv.SpringSecEx.Utlity.JwtKeyRing;
+import com.garv.SpringSecEx.Utlity.JwtUtil;
+
+final class BenchmarkSupport {
+
+    static final String USERNAME = "bench-user";
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * @return a secret whose length makes jjwt sign with the given HMAC algorithm
+     */
+    static String secretFor(String algorithm) {
+        int bytes = switch (algorithm) {
+            case "HS256" -> 32;
+            case "HS384" -> 48;
+            case "HS512" -> 64;
+            default -> throw new IllegalArgumentException("Unsupported algorithm: " + algorithm);
+        };
+        return "x".repeat(bytes);
+    }
+
+    /**
+     * @return a JwtUtil signing with the given HMAC or asymmetric algorithm
+     */
+    static JwtUtil jwtUtil(String algorithm) {
+        return jwtUtil(algorithm, "jwt");
+    }
+
+    /**
+     * @param format jwt or compact; compact only applies to HMAC and EdDSA
+     */
+    static JwtUtil jwtUtil(String algorithm, String format) {
+        return algorithm.startsWith("HS")
+                ? new JwtUtil(JwtKeyRing.hmac(secretFor(algorithm)), format)
+                : new JwtUtil(JwtKeyRing.generated(algorithm), format);
+    }
+
+    static UserPrincipal principal() {
+        Users user = new Users();
+        user.setId(1L);
+        user.setUsername(USERNAME);
+        user.setPassword("{bcrypt}$2a$10$7EqJtq98hPqEX7fNZaFWoO5yVXo2J1N9pOU0nLhN6gTfGkYR3x4.y");
+        return new UserPrincipal(user);
+    }
+}
@@ -0,0 +1,91 @@
+package com.garv.SpringSecEx.benchmark;
+
+import com.garv.SpringSecEx.Entity.UserPrincipal;
+import com.garv.SpringSecEx.Repository.RoleRepository;
+import com.garv.SpringSecEx.Repository.UserRepository;
+import com.garv.SpringSecEx.Services.AccessTokenPolicy;
+import com.garv.SpringSecEx.Services.RevocationStore;
+import com.garv.SpringSecEx.Services.RoleRegistry;
+import com.garv.SpringSecEx.Services.TokenRevocationService;
+import com.garv.SpringSecEx.Services.TokenVersionRegistry;
+import com.garv.SpringSecEx.Utlity.AuthMetrics;
+import com.garv.SpringSecEx.Utlity.JwtFilter;
+import com.garv.SpringSecEx.Utlity.JwtUtil;
+import com.garv.SpringSecEx.Utlity.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Full JwtFilter.doFilterInternal path with mock servlet objects and an in-memory
+ * user lookup, across the verified-token cache, stateless and lazy-authentication modes.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtFilterBenchmark {
+
+    @Param({"HS256", "HS512", "ES256"})
+    public String algorithm;
+
+    @Param({"false", "true"})
+    public boolean tokenCache;
+
+    @Param({"false", "true"})
+    public boolean stateless;
+
+    // Stateless mode only: lazy authentication skips the entity load since the benchmark never reads it
+    @Param({"false", "true"})
+    public boolean lazy;
+
+    private JwtFilter filter;
+    private String authorizationHeader;
+
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = BenchmarkSupport.jwtUtil(algorithm);
+        UserPrincipal principal = BenchmarkSupport.principal();
+
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findTokenVersionByUsername(BenchmarkSupport.USERNAME)).thenReturn(0);
+        TokenVersionRegistry versionRegistry = new TokenVersionRegistry(userRepository, event -> { },
+                Duration.ofMinutes(5), 10_000);
+        TokenRevocationService revocationService = new TokenRevocationService(
+                new StaticListableBeanFactory().getBeanProvider(RevocationStore.class), Duration.ofDays(7), 10_000);
+
+        UserDetailsService userDetailsService = username -> principal;
+        AccessTokenPolicy policy = new AccessTokenPolicy(revocationService, versionRegistry,
+                new RoleRegistry(mock(RoleRepository.class)), userDetailsService, stateless);
+        filter = new JwtFilter(new VerifiedTokenCache(jwtUtil, tokenCache, 10_000), policy,
+                new AuthMetrics(new SimpleMeterRegistry()), lazy);
+
+        authorizationHeader = "Bearer " + jwtUtil.generateToken(principal);
+    }
+
+    @Benchmark
+    public Object doFilter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader("Authorization", authorizationHeader);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
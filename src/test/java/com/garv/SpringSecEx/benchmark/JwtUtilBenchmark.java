@@ -0,0 +1,76 @@
+package com.garv.SpringSecEx.benchmark;
+
+import com.garv.SpringSecEx.Entity.UserPrincipal;
+import com.garv.SpringSecEx.Utlity.JwtUtil;
+import com.garv.SpringSecEx.Utlity.VerifiedToken;
+import com.garv.SpringSecEx.Utlity.VerifiedTokenCache;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issuance and verification. jjwt picks the HMAC algorithm from the key length,
+ * so each HMAC algorithm is benchmarked with a secret of the matching size; the
+ * asymmetric ones use generated keys.
+ * <p>
+ * {@code format} compares JWTs with the compact binary tokens of CompactTokenCodec.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilBenchmark {
+
+    @Param({"HS256", "HS384", "HS512", "RS256", "ES256", "EdDSA"})
+    public String algorithm;
+
+    // compact falls back to jwt for RS256/ES256, so only HMAC and EdDSA differ
+    @Param({"jwt", "compact"})
+    public String format;
+
+    private JwtUtil jwtUtil;
+    private VerifiedTokenCache tokenCache;
+    private UserPrincipal principal;
+    private String accessToken;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = BenchmarkSupport.jwtUtil(algorithm, format);
+        tokenCache = new VerifiedTokenCache(jwtUtil, true, 10_000);
+        principal = BenchmarkSupport.principal();
+        accessToken = jwtUtil.generateToken(principal);
+        tokenCache.verify(accessToken);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(principal.getUsername());
+    }
+
+    @Benchmark
+    public String generateTokenWithClaims() {
+        return jwtUtil.generateToken(principal);
+    }
+
+    @Benchmark
+    public VerifiedToken verify() {
+        return jwtUtil.verify(accessToken);
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtUtil.validateToken(accessToken, principal);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtUtil.extractUsername(accessToken);
+    }
+
+    @Benchmark
+    public VerifiedToken verifyCached() {
+        return tokenCache.verify(accessToken);
+    }
+}
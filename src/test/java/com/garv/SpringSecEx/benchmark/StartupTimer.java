@@ -0,0 +1,123 @@
+package com.garv.SpringSecEx.benchmark;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Measures how soon a freshly launched instance takes traffic: starts the given command,
+ * polls POST /auth/login (an unknown user, so any HTTP status counts as served) until the
+ * first response, then sends a few more requests for the warm-up curve. Repeats for the
+ * given number of runs and prints the medians. Compare the packaging modes on one machine:
+ * <pre>
+ * ./mvnw -Pbenchmarks test-compile exec:exec@startup-timer \
+ *     -Dstartup.args="http://localhost:8080 5 java -jar target/SpringSecEx-0.0.1-SNAPSHOT.jar"
+ * -Dstartup.args="... java -Dspring.aot.enabled=true -jar target/SpringSecEx-0.0.1-SNAPSHOT.jar"   # -Paot
+ * -Dstartup.args="... java -XX:SharedArchiveFile=target/application/application.jsa -jar target/application/SpringSecEx-0.0.1-SNAPSHOT.jar"   # -Pcds
+ * -Dstartup.args="... target/SpringSecEx"                                                          # -Pnative
+ * </pre>
+ * Arguments: base URL, runs, then the command. The database must be reachable, and the
+ * follow-up logins are only comparable with --auth.rate-limit.enabled=false appended to
+ * the command. Instances also report the first request themselves, see FirstRequestTimer.
+ */
+public final class StartupTimer {
+
+    private static final int FOLLOW_UP_REQUESTS = 20;
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(120);
+
+    private record Run(double firstResponseMs, double firstRequestMs, double followUpP50Ms) {
+    }
+
+    private StartupTimer() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: StartupTimer <base url> <runs> <command...>");
+            System.exit(2);
+        }
+        URI login = URI.create(args[0] + "/auth/login");
+        int runs = Integer.parseInt(args[1]);
+        List<String> command = Arrays.asList(args).subList(2, args.length);
+
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        Run[] results = new Run[runs];
+        for (int i = 0; i < runs; i++) {
+            results[i] = run(http, login, command);
+            System.out.printf("run %d: first response %.0f ms after launch, first request %.1f ms, next %d p50 %.1f ms%n",
+                    i + 1, results[i].firstResponseMs(), results[i].firstRequestMs(),
+                    FOLLOW_UP_REQUESTS, results[i].followUpP50Ms());
+        }
+        System.out.printf("median: first response %.0f ms, first request %.1f ms, follow-up p50 %.1f ms%n",
+                median(results, Run::firstResponseMs), median(results, Run::firstRequestMs),
+                median(results, Run::followUpP50Ms));
+    }
+
+    private static Run run(HttpClient http, URI login, List<String> command) throws Exception {
+        long launched = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(new File("target/startup-timer.log")))
+                .start();
+        try {
+            double firstRequestMs = -1;
+            while (firstRequestMs < 0) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Process exited with " + process.exitValue()
+                            + ", see target/startup-timer.log");
+                }
+                if (System.nanoTime() - launched > STARTUP_TIMEOUT.toNanos()) {
+                    throw new IllegalStateException("No response within " + STARTUP_TIMEOUT);
+                }
+                firstRequestMs = timedLogin(http, login);
+                if (firstRequestMs < 0) {
+                    Thread.sleep(10);
+                }
+            }
+            double firstResponseMs = (System.nanoTime() - launched) / 1_000_000.0;
+
+            double[] followUps = new double[FOLLOW_UP_REQUESTS];
+            for (int i = 0; i < followUps.length; i++) {
+                followUps[i] = timedLogin(http, login);
+            }
+            Arrays.sort(followUps);
+            return new Run(firstResponseMs, firstRequestMs, followUps[followUps.length / 2]);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    // Milliseconds until any HTTP response, or -1 while nothing is listening yet
+    private static double timedLogin(HttpClient http, URI login) {
+        HttpRequest request = HttpRequest.newBuilder(login)
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"startup-probe\",\"password\":\"x\"}"))
+                .build();
+        long start = System.nanoTime();
+        try {
+            http.send(request, HttpResponse.BodyHandlers.discarding());
+            return (System.nanoTime() - start) / 1_000_000.0;
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            return -1;
+        }
+    }
+
+    private static double median(Run[] runs, ToDoubleFunction<Run> metric) {
+        double[] values = Arrays.stream(runs).mapToDouble(metric).sorted().toArray();
+        return values[values.length / 2];
+    }
+}
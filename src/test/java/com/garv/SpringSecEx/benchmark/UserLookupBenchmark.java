@@ -0,0 +1,66 @@
+package com.garv.SpringSecEx.benchmark;
+
+import com.garv.SpringSecEx.Entity.Users;
+import com.garv.SpringSecEx.Repository.UserCredentials;
+import com.garv.SpringSecEx.Repository.UserRepository;
+import com.garv.SpringSecEx.SpringSecExApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-lookup cost of loading a user for authentication: the managed {@link Users} entity
+ * (with and without a surrounding read-write transaction, which adds a dirty-checking
+ * snapshot and a flush) against the {@link UserCredentials} projection the lookup path
+ * now uses. Runs the application on in-memory H2 (the loadtest profile), so the database
+ * time is close to zero and the difference is what Hibernate and Spring Data add.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserLookupBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private TransactionTemplate readWrite;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(SpringSecExApplication.class)
+                .profiles("loadtest")
+                .run("--server.port=0", "--spring.main.banner-mode=off", "--logging.level.root=warn");
+        userRepository = context.getBean(UserRepository.class);
+        readWrite = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        Users user = BenchmarkSupport.principal().getUser();
+        user.setId(null);
+        userRepository.save(user);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Users entity() {
+        return userRepository.findByUsername(BenchmarkSupport.USERNAME);
+    }
+
+    @Benchmark
+    public Users entityInReadWriteTransaction() {
+        return readWrite.execute(status -> userRepository.findByUsername(BenchmarkSupport.USERNAME));
+    }
+
+    @Benchmark
+    public UserCredentials projection() {
+        return userRepository.findCredentialsByUsername(BenchmarkSupport.USERNAME);
+    }
+}
@@ -0,0 +1,78 @@
+package com.garv.SpringSecEx.reactive;
+
+import com.garv.SpringSecEx.Entity.UserPrincipal;
+import com.garv.SpringSecEx.Entity.Users;
+import com.garv.SpringSecEx.Services.RevocationStore;
+import com.garv.SpringSecEx.Services.TokenRevocationService;
+import com.garv.SpringSecEx.Utlity.AuthMetrics;
+import com.garv.SpringSecEx.Utlity.JwtUtil;
+import com.garv.SpringSecEx.Utlity.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtWebFilterTests {
+
+	private final JwtUtil jwtUtil = new JwtUtil("test-secret-key-that-is-at-least-32-bytes-long");
+	private final TokenRevocationService revocationService = new TokenRevocationService(
+			new StaticListableBeanFactory().getBeanProvider(RevocationStore.class), Duration.ofDays(7), 1000);
+	private final Users alice = new Users(1L, "alice", "{noop}secret", 0, null, 1L);
+	private final JwtWebFilter filter = new JwtWebFilter(
+			new VerifiedTokenCache(jwtUtil, true, 1000),
+			revocationService,
+			username -> "alice".equals(username) ? Mono.just(new UserPrincipal(alice)) : Mono.empty(),
+			new AuthMetrics(new SimpleMeterRegistry()));
+
+	@Test
+	void validTokenAuthenticatesTheRequest() {
+		Authentication authentication = filterWith(jwtUtil.generateToken(new UserPrincipal(alice)));
+
+		assertNotNull(authentication);
+		assertEquals("alice", authentication.getName());
+	}
+
+	@Test
+	void revokedTokenLeavesTheRequestAnonymous() {
+		String token = jwtUtil.generateToken(new UserPrincipal(alice));
+		revocationService.revoke(jwtUtil.verify(token));
+
+		assertNull(filterWith(token));
+	}
+
+	@Test
+	void tokenWithStaleVersionLeavesTheRequestAnonymous() {
+		String token = jwtUtil.generateToken(new UserPrincipal(alice));
+		alice.setTokenVersion(1);
+
+		assertNull(filterWith(token));
+	}
+
+	@Test
+	void refreshTokenIsNotAcceptedAsAccessToken() {
+		assertNull(filterWith(jwtUtil.generateRefreshToken("alice")));
+	}
+
+	private Authentication filterWith(String token) {
+		MockServerWebExchange exchange = MockServerWebExchange.from(
+				MockServerHttpRequest.get("/").header("Authorization", "Bearer " + token));
+		AtomicReference<Authentication> authentication = new AtomicReference<>();
+
+		filter.filter(exchange, chained -> ReactiveSecurityContextHolder.getContext()
+						.map(SecurityContext::getAuthentication)
+						.doOnNext(authentication::set)
+						.then())
+				.block();
+		return authentication.get();
+	}
+}
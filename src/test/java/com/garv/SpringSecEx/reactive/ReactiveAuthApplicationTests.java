@@ -0,0 +1,16 @@
+package com.garv.SpringSecEx.reactive;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+// Only this package is scanned, so a shared bean gaining a dependency shows up here first
+@SpringBootTest(classes = ReactiveAuthApplication.class)
+@ActiveProfiles("reactive")
+class ReactiveAuthApplicationTests {
+
+	@Test
+	void contextLoads() {
+	}
+
+}
@@ -0,0 +1,69 @@
+package com.garv.SpringSecEx.reactive;
+
+import com.garv.SpringSecEx.Services.RevocationStore;
+import com.garv.SpringSecEx.Services.TokenRevocationService;
+import com.garv.SpringSecEx.Utlity.JwtUtil;
+import com.garv.SpringSecEx.dto.AuthResponse;
+import com.garv.SpringSecEx.exception.InvalidTokenException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ReactiveUserServiceTests {
+
+	private final JwtUtil jwtUtil = new JwtUtil("test-secret-key-that-is-at-least-32-bytes-long");
+	private final ReactiveUserRepository userRepository = mock(ReactiveUserRepository.class);
+	private final ReactiveRefreshTokenService refreshTokenService = mock(ReactiveRefreshTokenService.class);
+	private final ReactiveUserService service = new ReactiveUserService();
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(service, "userRepository", userRepository);
+		ReflectionTestUtils.setField(service, "refreshTokenService", refreshTokenService);
+		ReflectionTestUtils.setField(service, "jwtUtil", jwtUtil);
+		ReflectionTestUtils.setField(service, "roleRegistry", new ReactiveRoleRegistry(mock(DatabaseClient.class)));
+		ReflectionTestUtils.setField(service, "revocationService", new TokenRevocationService(
+				new StaticListableBeanFactory().getBeanProvider(RevocationStore.class), Duration.ofDays(7), 1000));
+		when(refreshTokenService.rotate(anyString(), anyString())).thenReturn(Mono.just("rotated"));
+	}
+
+	@Test
+	void refreshIssuesATokenWithTheCurrentVersion() {
+		when(userRepository.findByUsername("alice"))
+				.thenReturn(Mono.just(new UserRow(1L, "alice", "{noop}secret", 3, null, 1L)));
+
+		AuthResponse response = service.refreshAccessToken(jwtUtil.generateRefreshToken("alice")).block();
+
+		assertEquals("rotated", response.getRefreshToken());
+		assertEquals(3, jwtUtil.verify(response.getAccessToken()).tokenVersion());
+	}
+
+	@Test
+	void failedLoginLockoutDoesNotBlockRefresh() {
+		when(userRepository.findByUsername("alice")).thenReturn(Mono.just(
+				new UserRow(1L, "alice", "{noop}secret", 0, Instant.now().plusSeconds(600), 1L)));
+
+		AuthResponse response = service.refreshAccessToken(jwtUtil.generateRefreshToken("alice")).block();
+
+		assertEquals("rotated", response.getRefreshToken());
+	}
+
+	@Test
+	void deletedUsersCannotRefresh() {
+		when(userRepository.findByUsername("alice")).thenReturn(Mono.empty());
+
+		assertThrows(InvalidTokenException.class,
+				() -> service.refreshAccessToken(jwtUtil.generateRefreshToken("alice")).block());
+		verify(refreshTokenService, never()).rotate(anyString(), anyString());
+	}
+}